@@ -1,22 +1,86 @@
 package com.gestcon.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gestcon.dto.Pagina;
+import com.gestcon.dto.ResultadoLote;
+import com.gestcon.service.ExportacaoService;
+import com.gestcon.service.LoteService;
+import com.gestcon.service.VersaoService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Validator;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Classe base abstrata para controllers CRUD.
  * Elimina duplicação de código fornecendo operações básicas para todas as entidades.
- * 
+ *
  * @param <T> Tipo da entidade
  * @param <ID> Tipo do identificador da entidade
  */
 public abstract class BaseController<T, ID> {
 
+    protected static final int TAMANHO_PAGINA_MAXIMO = 200;
+
+    private static final Set<String> PARAMETROS_RESERVADOS = Set.of("cursor", "tamanho", "ordenarPor", "direcao");
+
+    private static final DefaultConversionService CONVERSOR = new DefaultConversionService();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private LoteService loteService;
+
+    @Autowired
+    private VersaoService versaoService;
+
+    @Autowired
+    private Validator validator;
+
+    private Class<T> entityClass;
+
     /**
      * Retorna o repositório específico da entidade.
      * Deve ser implementado pelas classes filhas.
@@ -30,20 +94,104 @@ public abstract class BaseController<T, ID> {
     protected abstract void updateEntity(T existingEntity, T entityDetails);
 
     /**
-     * Lista todas as entidades.
+     * Associações carregadas junto com a entidade nas listagens e exportações,
+     * evitando consultas adicionais por linha ao serializar.
+     * Pode ser sobrescrito pelas classes filhas.
+     */
+    protected String[] getAssociacoesListagem() {
+        return new String[0];
+    }
+
+    /**
+     * Lista as entidades em páginas por cursor (keyset), sem varredura por OFFSET.
+     * Parâmetros que não são de paginação são tratados como filtros de igualdade
+     * sobre os atributos simples da entidade. A ETag da página é derivada dos IDs e
+     * versões dos itens; se coincidir com If-None-Match, responde 304 sem serializar.
      */
     @GetMapping
-    public List<T> getAll() {
-        return getRepository().findAll();
+    public ResponseEntity<Pagina<T>> getAll(@RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "50") int tamanho,
+                                            @RequestParam(defaultValue = "id") String ordenarPor,
+                                            @RequestParam(defaultValue = "ASC") Sort.Direction direcao,
+                                            @RequestParam Map<String, String> parametros,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!isAtributoSimples(ordenarPor)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Map<String, String> filtros = new LinkedHashMap<>(parametros);
+        filtros.keySet().removeAll(PARAMETROS_RESERVADOS);
+        if (!filtros.keySet().stream().allMatch(this::isAtributoSimples)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ScrollPosition posicao;
+        try {
+            posicao = cursor == null || cursor.isBlank() ? ScrollPosition.keyset() : decodificarCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Sort ordenacao = Sort.by(direcao, ordenarPor);
+        if (!"id".equals(ordenarPor)) {
+            ordenacao = ordenacao.and(Sort.by(direcao, "id"));
+        }
+        Sort ordenacaoFinal = ordenacao;
+        int limite = Math.min(Math.max(tamanho, 1), TAMANHO_PAGINA_MAXIMO);
+
+        Window<T> janela = getRepository().findBy(criarExemplo(filtros),
+                query -> query.project(getAssociacoesListagem()).sortBy(ordenacaoFinal).limit(limite).scroll(posicao));
+
+        String proximoCursor = null;
+        if (janela.hasNext() && !janela.isEmpty()) {
+            proximoCursor = codificarCursor(janela.positionAt(janela.size() - 1));
+        }
+
+        StringBuilder assinaturas = new StringBuilder();
+        janela.forEach(entidade -> assinaturas.append(assinatura(entidade)).append(';'));
+        assinaturas.append(proximoCursor);
+        String etag = gerarEtag(DigestUtils.md5DigestAsHex(assinaturas.toString().getBytes(StandardCharsets.UTF_8)));
+        if (etagCorresponde(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(new Pagina<>(janela.getContent(), proximoCursor, janela.hasNext()));
+    }
+
+    /**
+     * Exporta todas as entidades em NDJSON ou CSV, escrevendo as linhas direto na resposta.
+     */
+    @GetMapping("/exportar")
+    public void exportar(@RequestParam(defaultValue = "NDJSON") ExportacaoService.Formato formato,
+                         HttpServletResponse response) throws IOException {
+        String extensao = formato == ExportacaoService.Formato.CSV ? "csv" : "ndjson";
+        response.setContentType(formato == ExportacaoService.Formato.CSV
+            ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + getEntityClass().getSimpleName().toLowerCase() + "." + extensao + "\"");
+        exportacaoService.exportar(getEntityClass(), formato, response.getOutputStream(), getAssociacoesListagem());
     }
 
     /**
      * Busca uma entidade por ID.
+     * A ETag é validada consultando apenas as colunas de versão: se coincidir com
+     * If-None-Match, responde 304 sem carregar a entidade.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<T> getById(@PathVariable ID id) {
+    public ResponseEntity<T> getById(@PathVariable ID id,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<List<Long>> versoes = versaoService.buscarVersoes(getEntityClass(), id, getAssociacoesListagem());
+            if (versoes.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            String etag = gerarEtag(VersaoService.assinatura(id, versoes.get()));
+            if (etagCorresponde(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+
         Optional<T> entity = getRepository().findById(id);
-        return entity.map(ResponseEntity::ok)
+        return entity.map(e -> ResponseEntity.ok().eTag(gerarEtag(assinatura(e))).body(e))
                     .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -55,6 +203,24 @@ public abstract class BaseController<T, ID> {
         return getRepository().save(entity);
     }
 
+    /**
+     * Cria várias entidades em lote, gravadas em blocos de transação com inserts JDBC agrupados.
+     * Blocos que falham são desfeitos e suas posições informadas no resultado; os demais ficam gravados.
+     */
+    @PostMapping("/lote")
+    public ResultadoLote<ID> createLote(@RequestBody List<@Valid T> entities) {
+        return loteService.inserir(getRepository(), entities);
+    }
+
+    /**
+     * Atualiza várias entidades existentes em lote.
+     * IDs não encontrados, itens sem ID e posições de blocos que falharam são informados no resultado.
+     */
+    @PutMapping("/lote")
+    public ResultadoLote<ID> updateLote(@RequestBody List<@Valid T> entitiesDetails) {
+        return loteService.atualizar(getRepository(), entitiesDetails, this::updateEntity);
+    }
+
     /**
      * Atualiza uma entidade existente.
      */
@@ -64,14 +230,54 @@ public abstract class BaseController<T, ID> {
         if (!optionalEntity.isPresent()) {
             return ResponseEntity.notFound().build();
         }
-        
+
         T existingEntity = optionalEntity.get();
         updateEntity(existingEntity, entityDetails);
-        
+
         T updatedEntity = getRepository().save(existingEntity);
         return ResponseEntity.ok(updatedEntity);
     }
 
+    /**
+     * Atualiza parcialmente uma entidade (JSON Merge Patch, RFC 7396).
+     * Apenas os atributos presentes no corpo são alterados e, com @DynamicUpdate,
+     * somente as colunas modificadas entram no UPDATE. A versão esperada pode ser
+     * enviada em If-Match (ETag) ou no atributo "versao" do corpo.
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<T> patch(@PathVariable ID id, @RequestBody ObjectNode patch,
+                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws IOException {
+        Optional<T> optionalEntity = getRepository().findById(id);
+        if (!optionalEntity.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        T existingEntity = optionalEntity.get();
+        if (ifMatch != null && !etagCorrespondeForte(ifMatch, gerarEtag(assinatura(existingEntity)))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        patch.remove("id");
+        JsonNode versaoEsperada = patch.remove("versao");
+        Object versaoAtual = PropertyAccessorFactory.forBeanPropertyAccess(existingEntity).getPropertyValue("versao");
+        if (versaoEsperada != null && !versaoEsperada.isNull() && !Long.valueOf(versaoEsperada.asLong()).equals(versaoAtual)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        objectMapper.readerForUpdating(existingEntity).readValue(patch);
+        if (!validator.validate(existingEntity).isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            T updatedEntity = getRepository().saveAndFlush(existingEntity);
+            return ResponseEntity.ok().eTag(gerarEtag(assinatura(updatedEntity))).body(updatedEntity);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
     /**
      * Remove uma entidade por ID.
      */
@@ -84,4 +290,153 @@ public abstract class BaseController<T, ID> {
         getRepository().delete(entity.get());
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Retorna a classe da entidade gerenciada pelo controller.
+     */
+    @SuppressWarnings("unchecked")
+    protected Class<T> getEntityClass() {
+        if (entityClass == null) {
+            Class<?>[] tipos = GenericTypeResolver.resolveTypeArguments(
+                ClassUtils.getUserClass(getClass()), BaseController.class);
+            entityClass = (Class<T>) tipos[0];
+        }
+        return entityClass;
+    }
+
+    /**
+     * Verifica se o nome corresponde a um atributo simples (não associação) da entidade.
+     */
+    protected boolean isAtributoSimples(String nome) {
+        PropertyDescriptor descritor = BeanUtils.getPropertyDescriptor(getEntityClass(), nome);
+        return descritor != null && descritor.getWriteMethod() != null
+            && isTipoSimples(descritor.getPropertyType());
+    }
+
+    /**
+     * Converte um valor textual para o tipo do atributo da entidade.
+     */
+    protected Object converterValor(String nome, String valor) {
+        if (valor == null) {
+            return null;
+        }
+        Class<?> tipo = BeanUtils.getPropertyDescriptor(getEntityClass(), nome).getPropertyType();
+        if (tipo == LocalDate.class) {
+            return LocalDate.parse(valor);
+        }
+        if (tipo == LocalDateTime.class) {
+            return LocalDateTime.parse(valor);
+        }
+        return CONVERSOR.convert(valor, tipo);
+    }
+
+    /**
+     * Assinatura de versão da entidade e das associações exibidas, usada nas ETags.
+     */
+    private String assinatura(T entidade) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entidade);
+        List<Long> versoes = new ArrayList<>();
+        versoes.add((Long) wrapper.getPropertyValue("versao"));
+        for (String caminho : getAssociacoesListagem()) {
+            String propriedade = caminho + ".versao";
+            versoes.add(wrapper.isReadableProperty(propriedade) ? (Long) wrapper.getPropertyValue(propriedade) : null);
+        }
+        return VersaoService.assinatura(wrapper.getPropertyValue("id"), versoes);
+    }
+
+    private static String gerarEtag(String assinatura) {
+        return "\"" + assinatura + "\"";
+    }
+
+    /**
+     * Compara a ETag com o cabeçalho If-None-Match (lista de ETags, fracas ou fortes, ou "*").
+     */
+    private static boolean etagCorresponde(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidata : ifNoneMatch.split(",")) {
+            String valor = candidata.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if ("*".equals(valor) || etag.equals(valor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compara a ETag com o cabeçalho If-Match usando comparação forte (RFC 9110):
+     * ETags fracas (W/) nunca correspondem; "*" corresponde a qualquer entidade existente.
+     */
+    private static boolean etagCorrespondeForte(String ifMatch, String etag) {
+        for (String candidata : ifMatch.split(",")) {
+            String valor = candidata.trim();
+            if ("*".equals(valor) || (!valor.startsWith("W/") && etag.equals(valor))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTipoSimples(Class<?> tipo) {
+        return BeanUtils.isSimpleValueType(tipo) || tipo == BigDecimal.class;
+    }
+
+    /**
+     * Monta um Example que compara apenas os atributos filtrados, ignorando
+     * os valores padrão atribuídos pelos construtores das entidades.
+     */
+    private Example<T> criarExemplo(Map<String, String> filtros) {
+        T probe = BeanUtils.instantiateClass(getEntityClass());
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(probe);
+
+        List<String> ignorados = new ArrayList<>();
+        for (PropertyDescriptor descritor : BeanUtils.getPropertyDescriptors(getEntityClass())) {
+            String nome = descritor.getName();
+            if (descritor.getWriteMethod() == null) {
+                continue;
+            }
+            if (filtros.containsKey(nome)) {
+                wrapper.setPropertyValue(nome, converterValor(nome, filtros.get(nome)));
+            } else if (isTipoSimples(descritor.getPropertyType())) {
+                ignorados.add(nome);
+            }
+        }
+
+        ExampleMatcher matcher = ExampleMatcher.matching().withIgnorePaths(ignorados.toArray(String[]::new));
+        return Example.of(probe, matcher);
+    }
+
+    private String codificarCursor(ScrollPosition posicao) {
+        Map<String, String> chaves = new LinkedHashMap<>();
+        ((KeysetScrollPosition) posicao).getKeys()
+            .forEach((nome, valor) -> chaves.put(nome, valor != null ? valor.toString() : null));
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(chaves);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao gerar cursor de paginação", e);
+        }
+    }
+
+    private ScrollPosition decodificarCursor(String cursor) {
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, String> chaves = objectMapper.readValue(json, new TypeReference<Map<String, String>>() {});
+
+            Map<String, Object> valores = new LinkedHashMap<>();
+            for (Map.Entry<String, String> chave : chaves.entrySet()) {
+                if (!isAtributoSimples(chave.getKey())) {
+                    throw new IllegalArgumentException("Cursor inválido");
+                }
+                valores.put(chave.getKey(), converterValor(chave.getKey(), chave.getValue()));
+            }
+            return ScrollPosition.forward(valores);
+        } catch (JsonProcessingException | RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
 }
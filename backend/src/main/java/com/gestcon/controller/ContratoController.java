@@ -23,6 +23,11 @@ public class ContratoController extends BaseController<Contrato, Long> {
         return contratoRepository;
     }
 
+    @Override
+    protected String[] getAssociacoesListagem() {
+        return new String[] {"empresa"};
+    }
+
     @Override
     protected void updateEntity(Contrato existingContrato, Contrato contratoDetails) {
         existingContrato.setNumeroContrato(contratoDetails.getNumeroContrato());
@@ -27,6 +27,11 @@ public class NotaFiscalController extends BaseController<NotaFiscal, Long> {
         return notaFiscalRepository;
     }
 
+    @Override
+    protected String[] getAssociacoesListagem() {
+        return new String[] {"contrato", "contrato.empresa", "pagamento", "pagamento.contrato", "pagamento.contrato.empresa"};
+    }
+
     @Override
     protected void updateEntity(NotaFiscal existingNotaFiscal, NotaFiscal notaFiscalDetails) {
         existingNotaFiscal.setNumeroNota(notaFiscalDetails.getNumeroNota());
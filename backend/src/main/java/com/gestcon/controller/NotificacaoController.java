@@ -0,0 +1,67 @@
+package com.gestcon.controller;
+
+import com.gestcon.dto.NotificacaoInApp;
+import com.gestcon.repository.NotificacaoRepository;
+import com.gestcon.service.NotificacaoBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Controller REST para notificações in-app.
+ * O cliente abre o stream SSE e carrega as não lidas uma vez (e a cada reconexão),
+ * em vez de consultar periodicamente a API.
+ */
+@RestController
+@RequestMapping("/api/notificacoes")
+@CrossOrigin(origins = "*")
+public class NotificacaoController {
+
+    @Autowired
+    private NotificacaoRepository notificacaoRepository;
+
+    @Autowired
+    private NotificacaoBroadcaster broadcaster;
+
+    /**
+     * Abre o stream de notificações em tempo real do usuário autenticado.
+     * O destinatário vem da autenticação, nunca de parâmetro, para que ninguém assine o feed de outro usuário.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Principal principal) {
+        return broadcaster.assinar(principal.getName());
+    }
+
+    /**
+     * Lista as notificações não lidas do usuário autenticado, mais recentes primeiro.
+     */
+    @GetMapping("/nao-lidas")
+    public List<NotificacaoInApp> getNaoLidas(Principal principal) {
+        return notificacaoRepository.findByUsuarioDestinatarioAndLidaFalseOrderByDataCriacaoDesc(principal.getName())
+            .stream()
+            .map(NotificacaoInApp::de)
+            .toList();
+    }
+
+    /**
+     * Marca uma notificação do usuário autenticado como lida.
+     * Notificação de outro destinatário responde 404, sem revelar que o ID existe.
+     */
+    @PutMapping("/{id}/lida")
+    @Transactional
+    public ResponseEntity<Void> marcarLida(@PathVariable Long id, Principal principal) {
+        return notificacaoRepository.findById(id)
+            .filter(notificacao -> principal.getName().equals(notificacao.getUsuarioDestinatario()))
+            .map(notificacao -> {
+                notificacao.marcarLida();
+                return ResponseEntity.noContent().<Void>build();
+            })
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,14 +1,24 @@
 package com.gestcon.controller;
 
+import com.gestcon.dto.RegraParcelamento;
+import com.gestcon.dto.ResultadoParcelamento;
+import com.gestcon.dto.SolicitacaoParcelamentoLote;
 import com.gestcon.model.Pagamento;
+import com.gestcon.model.ResumoFinanceiroContrato;
+import com.gestcon.repository.ContratoRepository;
 import com.gestcon.repository.PagamentoRepository;
+import com.gestcon.repository.ResumoFinanceiroContratoRepository;
+import com.gestcon.service.ParcelamentoService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Controller REST para gerenciamento de pagamentos.
@@ -22,11 +32,25 @@ public class PagamentoController extends BaseController<Pagamento, Long> {
     @Autowired
     private PagamentoRepository pagamentoRepository;
 
+    @Autowired
+    private ResumoFinanceiroContratoRepository resumoFinanceiroRepository;
+
+    @Autowired
+    private ContratoRepository contratoRepository;
+
+    @Autowired
+    private ParcelamentoService parcelamentoService;
+
     @Override
     protected JpaRepository<Pagamento, Long> getRepository() {
         return pagamentoRepository;
     }
 
+    @Override
+    protected String[] getAssociacoesListagem() {
+        return new String[] {"contrato", "contrato.empresa"};
+    }
+
     @Override
     protected void updateEntity(Pagamento existingPagamento, Pagamento pagamentoDetails) {
         existingPagamento.setNumeroParcela(pagamentoDetails.getNumeroParcela());
@@ -49,6 +73,46 @@ public class PagamentoController extends BaseController<Pagamento, Long> {
         return pagamentoRepository.findByContratoId(contratoId);
     }
 
+    /**
+     * Resumo financeiro do contrato (previsto, pago, pendente, parcelas e diferença),
+     * lido da tabela mantida pelo banco a cada alteração de pagamento, sem varrer pagamentos.
+     */
+    @GetMapping("/contrato/{contratoId}/resumo")
+    public ResponseEntity<ResumoFinanceiroContrato> getResumoFinanceiro(@PathVariable Long contratoId) {
+        return resumoFinanceiroRepository.findById(contratoId)
+                .or(() -> contratoRepository.existsById(contratoId)
+                    ? Optional.of(new ResumoFinanceiroContrato(contratoId))
+                    : Optional.empty())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Gera todas as parcelas do contrato a partir do valor total e da regra informada.
+     * Retorna 409 se o contrato já possui parcelas ou o valor total não cobre R$ 0,01 por parcela.
+     */
+    @PostMapping("/contrato/{contratoId}/parcelas")
+    public ResponseEntity<ResultadoParcelamento> gerarParcelas(@PathVariable Long contratoId,
+                                                               @Valid @RequestBody RegraParcelamento regra) {
+        ResultadoParcelamento resultado = parcelamentoService.gerarParcelas(contratoId, regra);
+        if (!resultado.naoEncontrados().isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!resultado.ignorados().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(resultado);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+    }
+
+    /**
+     * Gera as parcelas de vários contratos com a mesma regra (ex.: início do exercício),
+     * até SolicitacaoParcelamentoLote.MAXIMO_CONTRATOS por requisição.
+     */
+    @PostMapping("/parcelas/lote")
+    public ResponseEntity<ResultadoParcelamento> gerarParcelasEmLote(@Valid @RequestBody SolicitacaoParcelamentoLote solicitacao) {
+        return ResponseEntity.ok(parcelamentoService.gerarParcelas(solicitacao.contratoIds(), solicitacao.regra()));
+    }
+
     /**
      * Busca pagamentos por status.
      */
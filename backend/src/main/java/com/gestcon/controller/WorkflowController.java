@@ -0,0 +1,142 @@
+package com.gestcon.controller;
+
+import com.gestcon.dto.EstatisticaDiaria;
+import com.gestcon.dto.EstatisticaStatus;
+import com.gestcon.dto.Pagina;
+import com.gestcon.dto.ResultadoTransicao;
+import com.gestcon.dto.SolicitacaoTransicaoLote;
+import com.gestcon.dto.TempoStatus;
+import com.gestcon.model.ProcessoContrato;
+import com.gestcon.model.StatusContrato;
+import com.gestcon.service.EstatisticasProcessoService;
+import com.gestcon.service.TempoStatusService;
+import com.gestcon.service.WorkflowService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller REST para consulta e manutenção do workflow de contratos.
+ */
+@RestController
+@RequestMapping("/api/workflow")
+@CrossOrigin(origins = "*")
+public class WorkflowController {
+
+    @Autowired
+    private WorkflowService workflowService;
+
+    @Autowired
+    private EstatisticasProcessoService estatisticasProcessoService;
+
+    @Autowired
+    private TempoStatusService tempoStatusService;
+
+    /**
+     * Lista o grafo de transições em uso.
+     */
+    @GetMapping("/transicoes")
+    public Map<StatusContrato, List<StatusContrato>> getTransicoes() {
+        return workflowService.getTransicoes().comoMapa();
+    }
+
+    /**
+     * Recarrega as transições da tabela workflow_transicoes imediatamente.
+     */
+    @PostMapping("/transicoes/recarregar")
+    public Map<StatusContrato, List<StatusContrato>> recarregarTransicoes() {
+        return workflowService.recarregarTransicoes().comoMapa();
+    }
+
+    /**
+     * Lista os próximos status possíveis a partir do status informado.
+     */
+    @GetMapping("/status/{status}/proximos")
+    public List<StatusContrato> getProximosStatus(@PathVariable StatusContrato status) {
+        return workflowService.obterProximosStatusPossiveis(status);
+    }
+
+    /**
+     * Histórico de processos de um contrato, do mais recente para o mais antigo, paginado por cursor.
+     */
+    @GetMapping("/contratos/{contratoId}/historico")
+    public ResponseEntity<Pagina<ProcessoContrato>> getHistorico(@PathVariable Long contratoId,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "50") int tamanho) {
+        try {
+            return ResponseEntity.ok(workflowService.obterHistoricoContrato(contratoId, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Processo atual (última etapa) de um contrato.
+     */
+    @GetMapping("/contratos/{contratoId}/processo-atual")
+    public ResponseEntity<ProcessoContrato> getProcessoAtual(@PathVariable Long contratoId) {
+        return workflowService.obterProcessoAtual(contratoId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Quantidade e valor total de contratos por status para o dashboard (contadores em memória).
+     */
+    @GetMapping("/estatisticas")
+    public List<EstatisticaStatus> getEstatisticas() {
+        return workflowService.obterEstatisticasWorkflow();
+    }
+
+    /**
+     * Quantidade de processos por dia no período (datas inclusivas), lida da consolidação diária.
+     */
+    @GetMapping("/estatisticas/periodo")
+    public ResponseEntity<List<EstatisticaDiaria>> getEstatisticasPorPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(estatisticasProcessoService.obterPorPeriodo(inicio, fim));
+    }
+
+    /**
+     * Reconstrói a consolidação diária do período a partir do histórico (carga inicial ou correção).
+     */
+    @PostMapping("/estatisticas/periodo/reconstruir")
+    public ResponseEntity<Long> reconstruirEstatisticasPorPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(estatisticasProcessoService.reconstruir(inicio, fim));
+    }
+
+    /**
+     * Tempo de permanência em cada status (média e percentis, em horas), opcionalmente por responsável.
+     * Cada permanência é creditada ao usuário que a encerrou, isto é, o responsável pela
+     * transição seguinte (não quem levou o contrato ao status); as transições automáticas
+     * do job diário são creditadas a SISTEMA.
+     */
+    @GetMapping("/sla")
+    public List<TempoStatus> getTempoEmStatus(@RequestParam(defaultValue = "false") boolean porResponsavel) {
+        return tempoStatusService.obter(porResponsavel);
+    }
+
+    /**
+     * Altera o status de vários contratos de uma vez, retornando o resultado de cada um.
+     */
+    @PostMapping("/transicoes/lote")
+    public ResponseEntity<List<ResultadoTransicao>> alterarStatusEmLote(@Valid @RequestBody SolicitacaoTransicaoLote solicitacao) {
+        return ResponseEntity.ok(workflowService.alterarStatusEmLote(solicitacao.contratoIds(), solicitacao.novoStatus(),
+            solicitacao.acaoRealizada(), solicitacao.usuarioResponsavel(), solicitacao.observacoes()));
+    }
+}
@@ -0,0 +1,12 @@
+package com.gestcon.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Quantidade de processos de contrato registrados em um dia.
+ *
+ * @param dia        Dia da ação
+ * @param quantidade Número de processos no dia
+ */
+public record EstatisticaDiaria(LocalDate dia, long quantidade) {
+}
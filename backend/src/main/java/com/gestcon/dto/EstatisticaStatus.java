@@ -0,0 +1,15 @@
+package com.gestcon.dto;
+
+import com.gestcon.model.StatusContrato;
+
+import java.math.BigDecimal;
+
+/**
+ * Quantidade e valor total dos contratos em um status, para o dashboard do workflow.
+ *
+ * @param status     Status do contrato
+ * @param quantidade Número de contratos no status
+ * @param valorTotal Soma de valor_total dos contratos no status
+ */
+public record EstatisticaStatus(StatusContrato status, long quantidade, BigDecimal valorTotal) {
+}
@@ -0,0 +1,19 @@
+package com.gestcon.dto;
+
+import com.gestcon.model.Notificacao;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificação in-app enviada aos clientes conectados por SSE.
+ * Contém apenas os dados exibidos ao usuário, sem os campos internos da outbox de emails.
+ */
+public record NotificacaoInApp(Long id, Long contratoId, String usuarioDestinatario, String tipo,
+                               String titulo, String mensagem, String prioridade, LocalDateTime dataCriacao) {
+
+    public static NotificacaoInApp de(Notificacao notificacao) {
+        return new NotificacaoInApp(notificacao.getId(), notificacao.getContratoId(),
+            notificacao.getUsuarioDestinatario(), notificacao.getTipo(), notificacao.getTitulo(),
+            notificacao.getMensagem(), notificacao.getPrioridade(), notificacao.getDataCriacao());
+    }
+}
@@ -0,0 +1,12 @@
+package com.gestcon.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados paginada por cursor (keyset).
+ * O cursor é opaco para o cliente e deve ser reenviado para obter a próxima página.
+ *
+ * @param <T> Tipo dos itens da página
+ */
+public record Pagina<T>(List<T> itens, String proximoCursor, boolean temMais) {
+}
@@ -0,0 +1,44 @@
+package com.gestcon.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * Regra para gerar o cronograma de parcelas de um contrato a partir do valor total.
+ * Sem arredondamento informado, a diferença de centavos da divisão vai para a última parcela.
+ */
+public record RegraParcelamento(@NotNull @Min(1) @Max(360) Integer quantidade,
+                                @NotNull Periodicidade periodicidade,
+                                @NotNull LocalDate primeiroVencimento,
+                                Arredondamento arredondamento,
+                                @NotBlank String usuarioResponsavel) {
+
+    public enum Periodicidade {
+        MENSAL(1), BIMESTRAL(2), TRIMESTRAL(3), SEMESTRAL(6), ANUAL(12);
+
+        private final int meses;
+
+        Periodicidade(int meses) {
+            this.meses = meses;
+        }
+
+        public int getMeses() {
+            return meses;
+        }
+    }
+
+    /**
+     * Parcela que recebe os centavos restantes da divisão do valor total.
+     */
+    public enum Arredondamento {
+        PRIMEIRA_PARCELA, ULTIMA_PARCELA, DISTRIBUIR
+    }
+
+    public Arredondamento arredondamentoOuPadrao() {
+        return arredondamento != null ? arredondamento : Arredondamento.ULTIMA_PARCELA;
+    }
+}
@@ -0,0 +1,13 @@
+package com.gestcon.dto;
+
+/**
+ * Resultado do envio imediato de uma notificação para um destinatário.
+ * Status PENDENTE indica que o envio falhou e será tentado de novo pela outbox.
+ *
+ * @param destinatario   Email do destinatário
+ * @param notificacaoId  ID da notificação gravada na outbox
+ * @param status         ENVIADO, PENDENTE ou FALHA
+ * @param erro           Mensagem do último erro, se houver
+ */
+public record ResultadoEnvio(String destinatario, Long notificacaoId, String status, String erro) {
+}
@@ -0,0 +1,15 @@
+package com.gestcon.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de uma operação em lote.
+ * Traz os IDs gravados, os IDs enviados que não foram encontrados, as posições (na lista
+ * enviada) dos itens de blocos cuja transação falhou e as posições dos itens sem ID.
+ * Os blocos são gravados em transações independentes: itens fora de "falhas" já estão gravados.
+ *
+ * @param <ID> Tipo do identificador da entidade
+ */
+public record ResultadoLote<ID>(int processados, List<ID> ids, List<ID> naoEncontrados,
+                                List<Integer> falhas, List<Integer> semId) {
+}
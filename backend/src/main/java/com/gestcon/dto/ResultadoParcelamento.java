@@ -0,0 +1,12 @@
+package com.gestcon.dto;
+
+import java.util.List;
+
+/**
+ * Resultado da geração de parcelas: contratos atendidos, parcelas criadas, contratos
+ * inexistentes e contratos ignorados (já possuem parcelas ou o valor total não cobre ao menos
+ * R$ 0,01 por parcela).
+ */
+public record ResultadoParcelamento(List<Long> contratos, int parcelas,
+                                    List<Long> naoEncontrados, List<Long> ignorados) {
+}
@@ -0,0 +1,16 @@
+package com.gestcon.dto;
+
+import com.gestcon.model.StatusContrato;
+
+/**
+ * Resultado da transição de status de um contrato em uma operação em lote.
+ *
+ * @param contratoId     ID do contrato
+ * @param statusAnterior Status antes da operação (nulo se o contrato não existe)
+ * @param statusNovo     Status solicitado
+ * @param resultado      ALTERADO, NAO_ENCONTRADO, TRANSICAO_INVALIDA, CONFLITO ou ERRO
+ * @param mensagem       Detalhe do resultado, quando não alterado
+ */
+public record ResultadoTransicao(Long contratoId, StatusContrato statusAnterior, StatusContrato statusNovo,
+                                 String resultado, String mensagem) {
+}
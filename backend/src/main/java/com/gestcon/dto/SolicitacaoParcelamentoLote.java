@@ -0,0 +1,17 @@
+package com.gestcon.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Solicitação de geração de parcelas para vários contratos com a mesma regra.
+ */
+public record SolicitacaoParcelamentoLote(@NotEmpty @Size(max = SolicitacaoParcelamentoLote.MAXIMO_CONTRATOS) List<Long> contratoIds,
+                                          @NotNull @Valid RegraParcelamento regra) {
+
+    public static final int MAXIMO_CONTRATOS = 10_000;
+}
@@ -0,0 +1,18 @@
+package com.gestcon.dto;
+
+import com.gestcon.model.StatusContrato;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Solicitação de transição de status para vários contratos de uma vez.
+ */
+public record SolicitacaoTransicaoLote(@NotEmpty List<Long> contratoIds,
+                                       @NotNull StatusContrato novoStatus,
+                                       @NotBlank String acaoRealizada,
+                                       @NotBlank String usuarioResponsavel,
+                                       String observacoes) {
+}
@@ -0,0 +1,17 @@
+package com.gestcon.dto;
+
+/**
+ * Tempo de permanência dos contratos em um status (transições concluídas), em horas.
+ *
+ * @param status      Status do contrato
+ * @param responsavel Usuário que encerrou a permanência (SISTEMA nas transições automáticas;
+ *                    nulo quando agregado para todos)
+ * @param quantidade  Número de permanências medidas
+ * @param mediaHoras  Tempo médio
+ * @param p50Horas    Mediana
+ * @param p95Horas    Percentil 95
+ * @param p99Horas    Percentil 99
+ */
+public record TempoStatus(String status, String responsavel, long quantidade,
+                          double mediaHoras, double p50Horas, double p95Horas, double p99Horas) {
+}
@@ -1,24 +1,35 @@
 package com.gestcon.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "contratos")
+@DynamicUpdate
+@NamedEntityGraph(name = Contrato.GRAFO_LISTAGEM, attributeNodes = @NamedAttributeNode("empresa"))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "contratos", indexes = {
+    @Index(name = "idx_contratos_status_vigencia_fim", columnList = "status, vigencia_fim"),
+    @Index(name = "idx_contratos_vigencia_fim", columnList = "vigencia_fim")
+})
 public class Contrato {
 
+    public static final String GRAFO_LISTAGEM = "Contrato.listagem";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contratos_seq")
+    @SequenceGenerator(name = "contratos_seq", sequenceName = "contratos_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
     @Column(unique = true)
     private String numeroContrato;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "empresa_id", nullable = false)
     private Empresa empresa;
 
@@ -34,12 +45,22 @@ public class Contrato {
     @NotNull
     private BigDecimal valorTotal;
 
-    @NotBlank
-    private String status; // ativo, em renovação, encerrado, inadimplente, suspenso
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private StatusContrato status;
 
     @NotBlank
     private String responsavel;
 
+    // Ponteiro desnormalizado para o último ProcessoContrato (etapa atual), mantido pelo WorkflowService
+    @Column(name = "ultimo_processo_id")
+    private Long ultimoProcessoId;
+
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     // Getters e Setters
 
     public Long getId() {
@@ -98,11 +119,11 @@ public class Contrato {
         this.valorTotal = valorTotal;
     }
 
-    public String getStatus() {
+    public StatusContrato getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(StatusContrato status) {
         this.status = status;
     }
 
@@ -113,4 +134,20 @@ public class Contrato {
     public void setResponsavel(String responsavel) {
         this.responsavel = responsavel;
     }
+
+    public Long getUltimoProcessoId() {
+        return ultimoProcessoId;
+    }
+
+    public void setUltimoProcessoId(Long ultimoProcessoId) {
+        this.ultimoProcessoId = ultimoProcessoId;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
@@ -1,18 +1,28 @@
 package com.gestcon.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 /**
  * Entidade que representa uma Empresa contratada no sistema GestCon.
+ * Mantida no cache de segundo nível por ser lida em quase toda consulta de contratos.
  */
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "empresas")
 public class Empresa {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "empresas_seq")
+    @SequenceGenerator(name = "empresas_seq", sequenceName = "empresas_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -27,6 +37,10 @@ public class Empresa {
     @Size(max = 255)
     private String endereco;
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     // Getters e Setters
 
     public Long getId() {
@@ -60,4 +74,12 @@ public class Empresa {
     public void setEndereco(String endereco) {
         this.endereco = endereco;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
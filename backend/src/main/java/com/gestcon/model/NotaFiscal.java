@@ -3,6 +3,7 @@ package com.gestcon.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -12,18 +13,31 @@ import java.time.LocalDateTime;
  * Permite controle detalhado de documentos fiscais e sua validação.
  */
 @Entity
+@DynamicUpdate
+@NamedEntityGraph(name = NotaFiscal.GRAFO_LISTAGEM,
+    attributeNodes = {
+        @NamedAttributeNode(value = "contrato", subgraph = "contrato"),
+        @NamedAttributeNode(value = "pagamento", subgraph = "pagamento")
+    },
+    subgraphs = {
+        @NamedSubgraph(name = "contrato", attributeNodes = @NamedAttributeNode("empresa")),
+        @NamedSubgraph(name = "pagamento", attributeNodes = @NamedAttributeNode(value = "contrato", subgraph = "contrato"))
+    })
 @Table(name = "notas_fiscais")
 public class NotaFiscal {
 
+    public static final String GRAFO_LISTAGEM = "NotaFiscal.listagem";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notas_fiscais_seq")
+    @SequenceGenerator(name = "notas_fiscais_seq", sequenceName = "notas_fiscais_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "contrato_id", nullable = false)
     private Contrato contrato;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pagamento_id")
     private Pagamento pagamento;
 
@@ -87,6 +101,10 @@ public class NotaFiscal {
     @Column(name = "motivo_rejeicao", columnDefinition = "TEXT")
     private String motivoRejeicao;
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     // Construtores
     public NotaFiscal() {
         this.dataUpload = LocalDateTime.now();
@@ -307,4 +325,12 @@ public class NotaFiscal {
     public void setMotivoRejeicao(String motivoRejeicao) {
         this.motivoRejeicao = motivoRejeicao;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
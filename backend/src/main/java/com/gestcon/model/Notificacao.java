@@ -0,0 +1,267 @@
+package com.gestcon.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa uma notificação do sistema GestCon.
+ * Funciona também como outbox transacional: a notificação é gravada na mesma
+ * transação da operação de negócio e o email é enviado depois, em segundo plano.
+ */
+@Entity
+@Table(name = "notificacoes", indexes = {
+    @Index(name = "idx_notificacoes_envio_pendente", columnList = "status_envio, proxima_tentativa")
+})
+public class Notificacao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notificacoes_seq")
+    @SequenceGenerator(name = "notificacoes_seq", sequenceName = "notificacoes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "contrato_id")
+    private Long contratoId;
+
+    @NotBlank
+    @Column(name = "usuario_destinatario")
+    private String usuarioDestinatario;
+
+    @NotBlank
+    @Column(name = "tipo")
+    private String tipo;
+
+    @NotBlank
+    @Column(name = "titulo")
+    private String titulo;
+
+    @NotBlank
+    @Column(name = "mensagem", columnDefinition = "TEXT")
+    private String mensagem;
+
+    @Column(name = "lida")
+    private Boolean lida = false;
+
+    @NotNull
+    @Column(name = "data_criacao")
+    private LocalDateTime dataCriacao;
+
+    @Column(name = "data_leitura")
+    private LocalDateTime dataLeitura;
+
+    @Column(name = "prioridade")
+    private String prioridade = "NORMAL"; // BAIXA, NORMAL, ALTA, URGENTE
+
+    @NotBlank
+    @Column(name = "status_envio")
+    private String statusEnvio; // PENDENTE, ENVIADO, FALHA
+
+    @NotNull
+    @Column(name = "tentativas")
+    private Integer tentativas = 0;
+
+    @Column(name = "proxima_tentativa")
+    private LocalDateTime proximaTentativa;
+
+    @Column(name = "data_envio")
+    private LocalDateTime dataEnvio;
+
+    @Column(name = "ultimo_erro", columnDefinition = "TEXT")
+    private String ultimoErro;
+
+    @Column(name = "agrupavel")
+    private Boolean agrupavel = false; // pode ser enviada junto com outras no mesmo resumo
+
+    // Construtores
+    public Notificacao() {
+        this.dataCriacao = LocalDateTime.now();
+        this.statusEnvio = "PENDENTE";
+        this.proximaTentativa = this.dataCriacao;
+    }
+
+    public Notificacao(Long contratoId, String usuarioDestinatario, String tipo, String titulo, String mensagem) {
+        this();
+        this.contratoId = contratoId;
+        this.usuarioDestinatario = usuarioDestinatario;
+        this.tipo = tipo;
+        this.titulo = titulo;
+        this.mensagem = mensagem;
+    }
+
+    // Métodos de negócio
+    public void marcarEnviada() {
+        this.statusEnvio = "ENVIADO";
+        this.dataEnvio = LocalDateTime.now();
+        this.proximaTentativa = null;
+        this.ultimoErro = null;
+    }
+
+    /**
+     * Marca a notificação para envio em resumo, adiando o email até o fim da janela atual.
+     * As janelas são fixas (alinhadas ao início do dia), de modo que todas as notificações
+     * agrupáveis criadas na mesma janela ficam disponíveis no mesmo instante e são
+     * reservadas juntas pelo dispatcher.
+     */
+    public void agendarParaResumo(long janelaMinutos) {
+        this.agrupavel = true;
+        if (janelaMinutos <= 0) {
+            return;
+        }
+        LocalDateTime inicioDia = dataCriacao.toLocalDate().atStartOfDay();
+        long minutosNoDia = Duration.between(inicioDia, dataCriacao).toMinutes();
+        this.proximaTentativa = inicioDia.plusMinutes((minutosNoDia / janelaMinutos + 1) * janelaMinutos);
+    }
+
+    public void marcarLida() {
+        this.lida = true;
+        this.dataLeitura = LocalDateTime.now();
+    }
+
+    /**
+     * Registra uma falha de envio e agenda nova tentativa com backoff exponencial
+     * (espera inicial dobrada a cada tentativa, limitada a esperaMaximaSegundos).
+     * Ao atingir o máximo de tentativas, a notificação fica com status FALHA.
+     */
+    public void registrarFalha(String erro, int maxTentativas, long esperaInicialSegundos, long esperaMaximaSegundos) {
+        this.tentativas++;
+        this.ultimoErro = erro;
+        if (tentativas >= maxTentativas) {
+            this.statusEnvio = "FALHA";
+            this.proximaTentativa = null;
+            return;
+        }
+        long espera = Math.min(esperaMaximaSegundos, esperaInicialSegundos << Math.min(tentativas - 1, 30));
+        this.proximaTentativa = LocalDateTime.now().plusSeconds(espera);
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getContratoId() {
+        return contratoId;
+    }
+
+    public void setContratoId(Long contratoId) {
+        this.contratoId = contratoId;
+    }
+
+    public String getUsuarioDestinatario() {
+        return usuarioDestinatario;
+    }
+
+    public void setUsuarioDestinatario(String usuarioDestinatario) {
+        this.usuarioDestinatario = usuarioDestinatario;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public Boolean getLida() {
+        return lida;
+    }
+
+    public void setLida(Boolean lida) {
+        this.lida = lida;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    public void setDataCriacao(LocalDateTime dataCriacao) {
+        this.dataCriacao = dataCriacao;
+    }
+
+    public LocalDateTime getDataLeitura() {
+        return dataLeitura;
+    }
+
+    public void setDataLeitura(LocalDateTime dataLeitura) {
+        this.dataLeitura = dataLeitura;
+    }
+
+    public String getPrioridade() {
+        return prioridade;
+    }
+
+    public void setPrioridade(String prioridade) {
+        this.prioridade = prioridade;
+    }
+
+    public String getStatusEnvio() {
+        return statusEnvio;
+    }
+
+    public void setStatusEnvio(String statusEnvio) {
+        this.statusEnvio = statusEnvio;
+    }
+
+    public Integer getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(Integer tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public LocalDateTime getProximaTentativa() {
+        return proximaTentativa;
+    }
+
+    public void setProximaTentativa(LocalDateTime proximaTentativa) {
+        this.proximaTentativa = proximaTentativa;
+    }
+
+    public LocalDateTime getDataEnvio() {
+        return dataEnvio;
+    }
+
+    public void setDataEnvio(LocalDateTime dataEnvio) {
+        this.dataEnvio = dataEnvio;
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public void setUltimoErro(String ultimoErro) {
+        this.ultimoErro = ultimoErro;
+    }
+
+    public Boolean getAgrupavel() {
+        return agrupavel;
+    }
+
+    public void setAgrupavel(Boolean agrupavel) {
+        this.agrupavel = agrupavel;
+    }
+}
@@ -1,8 +1,10 @@
 package com.gestcon.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -12,14 +14,22 @@ import java.time.LocalDateTime;
  * Permite controle financeiro detalhado de cada parcela ou pagamento.
  */
 @Entity
+@DynamicUpdate
+@NamedEntityGraph(name = Pagamento.GRAFO_LISTAGEM,
+    attributeNodes = @NamedAttributeNode(value = "contrato", subgraph = "contrato"),
+    subgraphs = @NamedSubgraph(name = "contrato", attributeNodes = @NamedAttributeNode("empresa")))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "pagamentos")
 public class Pagamento {
 
+    public static final String GRAFO_LISTAGEM = "Pagamento.listagem";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pagamentos_seq")
+    @SequenceGenerator(name = "pagamentos_seq", sequenceName = "pagamentos_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "contrato_id", nullable = false)
     private Contrato contrato;
 
@@ -65,6 +75,10 @@ public class Pagamento {
     @Column(name = "usuario_responsavel")
     private String usuarioResponsavel;
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     // Construtores
     public Pagamento() {
         this.dataCriacao = LocalDateTime.now();
@@ -210,4 +224,12 @@ public class Pagamento {
     public void setUsuarioResponsavel(String usuarioResponsavel) {
         this.usuarioResponsavel = usuarioResponsavel;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
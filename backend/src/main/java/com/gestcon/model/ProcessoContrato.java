@@ -3,6 +3,7 @@ package com.gestcon.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 /**
@@ -10,14 +11,23 @@ import java.time.LocalDateTime;
  * Permite rastreamento detalhado de todas as etapas e mudanças de status.
  */
 @Entity
-@Table(name = "processos_contrato")
+@DynamicUpdate
+@NamedEntityGraph(name = ProcessoContrato.GRAFO_LISTAGEM,
+    attributeNodes = @NamedAttributeNode(value = "contrato", subgraph = "contrato"),
+    subgraphs = @NamedSubgraph(name = "contrato", attributeNodes = @NamedAttributeNode("empresa")))
+@Table(name = "processos_contrato", indexes = {
+    @Index(name = "idx_processos_contrato_data_acao", columnList = "contrato_id, data_acao DESC, id DESC")
+})
 public class ProcessoContrato {
 
+    public static final String GRAFO_LISTAGEM = "ProcessoContrato.listagem";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "processos_contrato_seq")
+    @SequenceGenerator(name = "processos_contrato_seq", sequenceName = "processos_contrato_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "contrato_id", nullable = false)
     private Contrato contrato;
 
@@ -51,6 +61,10 @@ public class ProcessoContrato {
     @Column(name = "ativo")
     private Boolean ativo = true;
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     // Construtores
     public ProcessoContrato() {}
 
@@ -144,4 +158,12 @@ public class ProcessoContrato {
     public void setAtivo(Boolean ativo) {
         this.ativo = ativo;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
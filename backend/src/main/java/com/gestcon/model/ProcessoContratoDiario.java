@@ -0,0 +1,111 @@
+package com.gestcon.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Consolidação diária de processos_contrato: quantidade de processos por dia, status e ação.
+ * Incrementada junto com cada transição do workflow e recalculada por job a partir das
+ * linhas brutas, de modo que estatísticas por período não precisam varrer o histórico.
+ */
+@Entity
+@IdClass(ProcessoContratoDiario.Chave.class)
+@Table(name = "processos_contrato_diario")
+public class ProcessoContratoDiario {
+
+    @Id
+    @Column(name = "dia")
+    private LocalDate dia;
+
+    @Id
+    @Column(name = "status_atual", length = 50)
+    private String statusAtual;
+
+    @Id
+    @Column(name = "acao_realizada")
+    private String acaoRealizada;
+
+    @NotNull
+    @Column(name = "quantidade")
+    private Long quantidade;
+
+    // Construtores
+    public ProcessoContratoDiario() {}
+
+    public ProcessoContratoDiario(LocalDate dia, String statusAtual, String acaoRealizada, Long quantidade) {
+        this.dia = dia;
+        this.statusAtual = statusAtual;
+        this.acaoRealizada = acaoRealizada;
+        this.quantidade = quantidade;
+    }
+
+    // Getters e Setters
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public void setDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public String getStatusAtual() {
+        return statusAtual;
+    }
+
+    public void setStatusAtual(String statusAtual) {
+        this.statusAtual = statusAtual;
+    }
+
+    public String getAcaoRealizada() {
+        return acaoRealizada;
+    }
+
+    public void setAcaoRealizada(String acaoRealizada) {
+        this.acaoRealizada = acaoRealizada;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    /**
+     * Chave composta (dia, status, ação).
+     */
+    public static class Chave implements Serializable {
+
+        private LocalDate dia;
+
+        private String statusAtual;
+
+        private String acaoRealizada;
+
+        public Chave() {}
+
+        public Chave(LocalDate dia, String statusAtual, String acaoRealizada) {
+            this.dia = dia;
+            this.statusAtual = statusAtual;
+            this.acaoRealizada = acaoRealizada;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave chave)) return false;
+            return Objects.equals(dia, chave.dia) && Objects.equals(statusAtual, chave.statusAtual)
+                && Objects.equals(acaoRealizada, chave.acaoRealizada);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dia, statusAtual, acaoRealizada);
+        }
+    }
+}
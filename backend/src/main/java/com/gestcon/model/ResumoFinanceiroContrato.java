@@ -0,0 +1,101 @@
+package com.gestcon.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Totais financeiros de um contrato (somente leitura).
+ * A tabela é mantida pelo trigger tg_resumo_financeiro a cada alteração em pagamentos,
+ * inclusive as feitas por SQL direto, por isso não passa pelo cache de segundo nível.
+ */
+@Entity
+@Immutable
+@Table(name = "resumo_financeiro_contratos")
+public class ResumoFinanceiroContrato {
+
+    @Id
+    @Column(name = "contrato_id")
+    private Long contratoId;
+
+    @Column(name = "total_previsto", precision = 15, scale = 2)
+    private BigDecimal totalPrevisto = BigDecimal.ZERO;
+
+    @Column(name = "total_pago", precision = 15, scale = 2)
+    private BigDecimal totalPago = BigDecimal.ZERO;
+
+    @Column(name = "total_pendente", precision = 15, scale = 2)
+    private BigDecimal totalPendente = BigDecimal.ZERO;
+
+    // Soma de (valor pago - valor previsto) das parcelas pagas, como em Pagamento.calcularDiferenca
+    @Column(name = "total_diferenca", precision = 15, scale = 2)
+    private BigDecimal totalDiferenca = BigDecimal.ZERO;
+
+    @Column(name = "total_parcelas")
+    private Long totalParcelas = 0L;
+
+    @Column(name = "parcelas_pagas")
+    private Long parcelasPagas = 0L;
+
+    @Column(name = "parcelas_pendentes")
+    private Long parcelasPendentes = 0L;
+
+    @Column(name = "parcelas_atrasadas")
+    private Long parcelasAtrasadas = 0L;
+
+    @Column(name = "data_atualizacao")
+    private LocalDateTime dataAtualizacao;
+
+    // Construtores
+    public ResumoFinanceiroContrato() {}
+
+    /**
+     * Resumo zerado, para contratos ainda sem pagamentos.
+     */
+    public ResumoFinanceiroContrato(Long contratoId) {
+        this.contratoId = contratoId;
+    }
+
+    // Getters
+    public Long getContratoId() {
+        return contratoId;
+    }
+
+    public BigDecimal getTotalPrevisto() {
+        return totalPrevisto;
+    }
+
+    public BigDecimal getTotalPago() {
+        return totalPago;
+    }
+
+    public BigDecimal getTotalPendente() {
+        return totalPendente;
+    }
+
+    public BigDecimal getTotalDiferenca() {
+        return totalDiferenca;
+    }
+
+    public Long getTotalParcelas() {
+        return totalParcelas;
+    }
+
+    public Long getParcelasPagas() {
+        return parcelasPagas;
+    }
+
+    public Long getParcelasPendentes() {
+        return parcelasPendentes;
+    }
+
+    public Long getParcelasAtrasadas() {
+        return parcelasAtrasadas;
+    }
+
+    public LocalDateTime getDataAtualizacao() {
+        return dataAtualizacao;
+    }
+}
@@ -0,0 +1,23 @@
+package com.gestcon.model;
+
+/**
+ * Status possíveis de um contrato no workflow do GestCon.
+ * As transições permitidas entre eles ficam em TabelaTransicoes (WorkflowService).
+ */
+public enum StatusContrato {
+    RASCUNHO,
+    EM_ANALISE,
+    PENDENTE_DOCUMENTOS,
+    APROVADO,
+    REJEITADO,
+    ASSINADO,
+    ATIVO,
+    VENCENDO,
+    VENCIDO,
+    EM_RENOVACAO,
+    RENOVADO,
+    SUSPENSO,
+    INADIMPLENTE,
+    ENCERRADO,
+    CANCELADO
+}
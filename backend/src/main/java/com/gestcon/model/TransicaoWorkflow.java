@@ -0,0 +1,76 @@
+package com.gestcon.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Entidade que representa uma transição permitida no workflow de contratos.
+ * Quando a tabela tem transições ativas, elas substituem o grafo padrão do WorkflowService
+ * e são recarregadas periodicamente, sem necessidade de novo deploy.
+ */
+@Entity
+@Table(name = "workflow_transicoes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_workflow_transicao", columnNames = {"status_origem", "status_destino"})
+})
+public class TransicaoWorkflow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workflow_transicoes_seq")
+    @SequenceGenerator(name = "workflow_transicoes_seq", sequenceName = "workflow_transicoes_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_origem", length = 20)
+    private StatusContrato statusOrigem;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_destino", length = 20)
+    private StatusContrato statusDestino;
+
+    @NotNull
+    @Column(name = "ativo")
+    private Boolean ativo = true;
+
+    // Construtores
+    public TransicaoWorkflow() {}
+
+    public TransicaoWorkflow(StatusContrato statusOrigem, StatusContrato statusDestino) {
+        this.statusOrigem = statusOrigem;
+        this.statusDestino = statusDestino;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public StatusContrato getStatusOrigem() {
+        return statusOrigem;
+    }
+
+    public void setStatusOrigem(StatusContrato statusOrigem) {
+        this.statusOrigem = statusOrigem;
+    }
+
+    public StatusContrato getStatusDestino() {
+        return statusDestino;
+    }
+
+    public void setStatusDestino(StatusContrato statusDestino) {
+        this.statusDestino = statusDestino;
+    }
+
+    public Boolean getAtivo() {
+        return ativo;
+    }
+
+    public void setAtivo(Boolean ativo) {
+        this.ativo = ativo;
+    }
+}
@@ -1,19 +1,27 @@
 package com.gestcon.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 /**
  * Entidade que representa um Usuário do sistema GestCon.
+ * Mantida no cache de segundo nível por ser raramente alterada.
  */
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "usuarios")
 public class Usuario {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_seq")
+    @SequenceGenerator(name = "usuarios_seq", sequenceName = "usuarios_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -31,6 +39,10 @@ public class Usuario {
     @NotBlank
     private String papel; // Ex: ADMIN, GESTOR, VISUALIZADOR
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     // Getters e Setters
 
     public Long getId() {
@@ -72,4 +84,12 @@ public class Usuario {
     public void setPapel(String papel) {
         this.papel = papel;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
@@ -1,10 +1,142 @@
 package com.gestcon.repository;
 
 import com.gestcon.model.Contrato;
+import com.gestcon.model.StatusContrato;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório JPA para a entidade Contrato.
+ * As consultas por status e vigência usam o índice (status, vigencia_fim).
+ */
 @Repository
 public interface ContratoRepository extends JpaRepository<Contrato, Long> {
-    // Métodos customizados podem ser adicionados aqui
+
+    /**
+     * Busca contrato por ID já carregando as associações exibidas pela API.
+     */
+    @Override
+    @EntityGraph(Contrato.GRAFO_LISTAGEM)
+    Optional<Contrato> findById(Long id);
+
+    /**
+     * Busca contratos por status.
+     */
+    @EntityGraph(Contrato.GRAFO_LISTAGEM)
+    List<Contrato> findByStatus(StatusContrato status);
+
+    /**
+     * Busca contratos com fim de vigência dentro do intervalo (exclusivo nas duas pontas).
+     */
+    @EntityGraph(Contrato.GRAFO_LISTAGEM)
+    @Query("SELECT c FROM Contrato c WHERE c.vigenciaFim > :dataInicio AND c.vigenciaFim < :dataLimite")
+    List<Contrato> findContratosProximosVencimento(@Param("dataInicio") LocalDate dataInicio,
+                                                  @Param("dataLimite") LocalDate dataLimite);
+
+    /**
+     * Busca contratos com fim de vigência anterior à data informada.
+     */
+    @EntityGraph(Contrato.GRAFO_LISTAGEM)
+    @Query("SELECT c FROM Contrato c WHERE c.vigenciaFim < :dataAtual")
+    List<Contrato> findContratosVencidos(@Param("dataAtual") LocalDate dataAtual);
+
+    /**
+     * Busca os contratos informados já carregando as associações usadas nas notificações.
+     */
+    @EntityGraph(Contrato.GRAFO_LISTAGEM)
+    List<Contrato> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Retorna pares (id, status) dos contratos informados, sem carregar as entidades.
+     */
+    @Query("SELECT c.id, c.status FROM Contrato c WHERE c.id IN :ids")
+    List<Object[]> findStatusByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retorna pares (id, valor total) dos contratos informados, bloqueando as linhas em ordem de ID
+     * até o fim da transação para que duas gerações de parcelas do mesmo contrato não se sobreponham.
+     */
+    @Query(value = "SELECT id, valor_total FROM contratos WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+           nativeQuery = true)
+    List<Object[]> bloquearValorTotalByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Altera o status dos contratos que ainda estão no status esperado (compare-and-set)
+     * em um único comando, incrementando a versão. Retorna os IDs efetivamente alterados.
+     */
+    @Transactional
+    @Query(value = "UPDATE contratos SET status = :novoStatus, versao = versao + 1 " +
+                   "WHERE id IN (:ids) AND status = :statusAtual RETURNING id", nativeQuery = true)
+    List<Long> atualizarStatus(@Param("ids") Collection<Long> ids,
+                               @Param("statusAtual") String statusAtual,
+                               @Param("novoStatus") String novoStatus);
+
+    /**
+     * Marca como VENCIDO um chunk de contratos com vigência encerrada antes da data informada.
+     * Trava as linhas com SKIP LOCKED e retorna apenas as alteradas: pares (id, status anterior).
+     */
+    @Transactional
+    @Query(value = "WITH alvo AS (SELECT id, status FROM contratos " +
+                   "WHERE status IN (:origens) AND vigencia_fim < :data " +
+                   "ORDER BY id LIMIT :limite FOR UPDATE SKIP LOCKED) " +
+                   "UPDATE contratos c SET status = 'VENCIDO', versao = c.versao + 1 FROM alvo " +
+                   "WHERE c.id = alvo.id RETURNING c.id, alvo.status", nativeQuery = true)
+    List<Object[]> marcarVencidos(@Param("origens") Collection<String> origens,
+                                  @Param("data") LocalDate data,
+                                  @Param("limite") int limite);
+
+    /**
+     * Marca como INADIMPLENTE um chunk de contratos com pagamento ATRASADO vencido antes da data informada.
+     * Trava as linhas com SKIP LOCKED e retorna apenas as alteradas: pares (id, status anterior).
+     */
+    @Transactional
+    @Query(value = "WITH alvo AS (SELECT c.id, c.status FROM contratos c " +
+                   "WHERE c.status IN (:origens) AND EXISTS (SELECT 1 FROM pagamentos p " +
+                   "WHERE p.contrato_id = c.id AND p.status = 'ATRASADO' AND p.data_vencimento < :data) " +
+                   "ORDER BY c.id LIMIT :limite FOR UPDATE SKIP LOCKED) " +
+                   "UPDATE contratos c SET status = 'INADIMPLENTE', versao = c.versao + 1 FROM alvo " +
+                   "WHERE c.id = alvo.id RETURNING c.id, alvo.status", nativeQuery = true)
+    List<Object[]> marcarInadimplentes(@Param("origens") Collection<String> origens,
+                                       @Param("data") LocalDate data,
+                                       @Param("limite") int limite);
+
+    /**
+     * Quantidade e soma de valor_total dos contratos por status: (status, quantidade, valor).
+     */
+    @Query("SELECT c.status, COUNT(c), COALESCE(SUM(c.valorTotal), 0) FROM Contrato c GROUP BY c.status")
+    List<Object[]> contarPorStatus();
+
+    /**
+     * Status atual de um contrato, lido do banco (sem passar pelo contexto de persistência).
+     */
+    @Query("SELECT c.status FROM Contrato c WHERE c.id = :id")
+    Optional<StatusContrato> findStatusById(@Param("id") Long id);
+
+    /**
+     * Atualiza o ponteiro para o último processo do contrato.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE contratos SET ultimo_processo_id = :processoId WHERE id = :id", nativeQuery = true)
+    int atualizarUltimoProcesso(@Param("id") Long id, @Param("processoId") Long processoId);
+
+    /**
+     * Aponta cada contrato para o processo informado (um processo por contrato) em um único
+     * UPDATE, sem alterar a versão. Os processos já devem ter sido gravados (flush).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE contratos c SET ultimo_processo_id = p.id FROM processos_contrato p " +
+                   "WHERE p.id IN (:processoIds) AND c.id = p.contrato_id", nativeQuery = true)
+    int atualizarUltimosProcessos(@Param("processoIds") Collection<Long> processoIds);
 }
@@ -1,13 +1,23 @@
 package com.gestcon.repository;
 
 import com.gestcon.model.Empresa;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 /**
  * Repositório JPA para a entidade Empresa.
  */
 @Repository
 public interface EmpresaRepository extends JpaRepository<Empresa, Long> {
-    // Métodos customizados podem ser adicionados aqui
+
+    /**
+     * Busca empresa pelo CNPJ (resultado mantido no cache de consultas).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Empresa> findByCnpj(String cnpj);
 }
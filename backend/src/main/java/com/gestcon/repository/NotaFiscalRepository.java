@@ -1,6 +1,7 @@
 package com.gestcon.repository;
 
 import com.gestcon.model.NotaFiscal;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository para operações de banco de dados da entidade NotaFiscal.
@@ -16,30 +18,42 @@ import java.util.List;
 @Repository
 public interface NotaFiscalRepository extends JpaRepository<NotaFiscal, Long> {
 
+    /**
+     * Busca nota fiscal por ID já carregando as associações exibidas pela API.
+     */
+    @Override
+    @EntityGraph(NotaFiscal.GRAFO_LISTAGEM)
+    Optional<NotaFiscal> findById(Long id);
+
     /**
      * Busca notas fiscais por contrato.
      */
+    @EntityGraph(NotaFiscal.GRAFO_LISTAGEM)
     List<NotaFiscal> findByContratoId(Long contratoId);
 
     /**
      * Busca notas fiscais por status.
      */
+    @EntityGraph(NotaFiscal.GRAFO_LISTAGEM)
     List<NotaFiscal> findByStatus(String status);
 
     /**
      * Busca notas fiscais vencidas.
      */
+    @EntityGraph(NotaFiscal.GRAFO_LISTAGEM)
     @Query("SELECT nf FROM NotaFiscal nf WHERE nf.dataVencimento < :dataAtual AND nf.status != 'PAGA'")
     List<NotaFiscal> findNotasVencidas(@Param("dataAtual") LocalDate dataAtual);
 
     /**
      * Busca notas fiscais por número.
      */
+    @EntityGraph(NotaFiscal.GRAFO_LISTAGEM)
     NotaFiscal findByNumeroNota(String numeroNota);
 
     /**
      * Busca notas fiscais por período de emissão.
      */
+    @EntityGraph(NotaFiscal.GRAFO_LISTAGEM)
     @Query("SELECT nf FROM NotaFiscal nf WHERE nf.dataEmissao BETWEEN :dataInicio AND :dataFim")
     List<NotaFiscal> findByPeriodoEmissao(@Param("dataInicio") LocalDate dataInicio, 
                                          @Param("dataFim") LocalDate dataFim);
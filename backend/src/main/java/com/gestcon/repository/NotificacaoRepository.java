@@ -0,0 +1,57 @@
+package com.gestcon.repository;
+
+import com.gestcon.model.Notificacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório JPA para a entidade Notificacao.
+ * Inclui as consultas da outbox de emails e das notificações in-app.
+ */
+@Repository
+public interface NotificacaoRepository extends JpaRepository<Notificacao, Long> {
+
+    /**
+     * Reserva um lote de notificações com envio pendente e vencido, adiando a próxima
+     * tentativa até o fim da reserva. SKIP LOCKED permite vários nós drenarem a
+     * outbox ao mesmo tempo sem disputar as mesmas linhas. A ordenação por destinatário e
+     * tipo mantém juntos, no mesmo lote, os resumos que vencem no fim da mesma janela.
+     */
+    @Transactional
+    @Query(value = "UPDATE notificacoes SET proxima_tentativa = :fimReserva " +
+                   "WHERE id IN (SELECT id FROM notificacoes " +
+                   "             WHERE status_envio = 'PENDENTE' AND proxima_tentativa <= :agora " +
+                   "             ORDER BY proxima_tentativa, usuario_destinatario, tipo LIMIT :limite FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING *", nativeQuery = true)
+    List<Notificacao> reservarPendentes(@Param("agora") LocalDateTime agora,
+                                        @Param("fimReserva") LocalDateTime fimReserva,
+                                        @Param("limite") int limite);
+
+    /**
+     * Grava apenas as colunas de entrega de uma notificação da outbox. Não sobrescreve
+     * lida/data_leitura, que podem ter sido alteradas pelo usuário durante o envio.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notificacao n SET n.statusEnvio = :statusEnvio, n.tentativas = :tentativas, " +
+           "n.proximaTentativa = :proximaTentativa, n.dataEnvio = :dataEnvio, n.ultimoErro = :ultimoErro " +
+           "WHERE n.id = :id")
+    int atualizarEnvio(@Param("id") Long id,
+                       @Param("statusEnvio") String statusEnvio,
+                       @Param("tentativas") Integer tentativas,
+                       @Param("proximaTentativa") LocalDateTime proximaTentativa,
+                       @Param("dataEnvio") LocalDateTime dataEnvio,
+                       @Param("ultimoErro") String ultimoErro);
+
+    /**
+     * Notificações in-app ainda não lidas pelo usuário, mais recentes primeiro.
+     */
+    List<Notificacao> findByUsuarioDestinatarioAndLidaFalseOrderByDataCriacaoDesc(String usuarioDestinatario);
+}
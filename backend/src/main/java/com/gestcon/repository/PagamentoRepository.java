@@ -1,13 +1,17 @@
 package com.gestcon.repository;
 
 import com.gestcon.model.Pagamento;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository para operações de banco de dados da entidade Pagamento.
@@ -16,25 +20,42 @@ import java.util.List;
 @Repository
 public interface PagamentoRepository extends JpaRepository<Pagamento, Long> {
 
+    /**
+     * Busca pagamento por ID já carregando as associações exibidas pela API.
+     */
+    @Override
+    @EntityGraph(Pagamento.GRAFO_LISTAGEM)
+    Optional<Pagamento> findById(Long id);
+
     /**
      * Busca pagamentos por contrato.
      */
+    @EntityGraph(Pagamento.GRAFO_LISTAGEM)
     List<Pagamento> findByContratoId(Long contratoId);
 
+    /**
+     * Retorna, dentre os contratos informados, os que já possuem parcelas.
+     */
+    @Query("SELECT DISTINCT p.contrato.id FROM Pagamento p WHERE p.contrato.id IN :contratoIds")
+    List<Long> findContratosComParcelas(@Param("contratoIds") Collection<Long> contratoIds);
+
     /**
      * Busca pagamentos por status.
      */
+    @EntityGraph(Pagamento.GRAFO_LISTAGEM)
     List<Pagamento> findByStatus(String status);
 
     /**
      * Busca pagamentos atrasados.
      */
+    @EntityGraph(Pagamento.GRAFO_LISTAGEM)
     @Query("SELECT p FROM Pagamento p WHERE p.dataVencimento < :dataAtual AND p.status = 'PENDENTE'")
     List<Pagamento> findPagamentosAtrasados(@Param("dataAtual") LocalDate dataAtual);
 
     /**
      * Busca pagamentos por período de vencimento.
      */
+    @EntityGraph(Pagamento.GRAFO_LISTAGEM)
     @Query("SELECT p FROM Pagamento p WHERE p.dataVencimento BETWEEN :dataInicio AND :dataFim")
     List<Pagamento> findByPeriodoVencimento(@Param("dataInicio") LocalDate dataInicio, 
                                            @Param("dataFim") LocalDate dataFim);
@@ -42,12 +63,25 @@ public interface PagamentoRepository extends JpaRepository<Pagamento, Long> {
     /**
      * Busca pagamentos por usuário responsável.
      */
+    @EntityGraph(Pagamento.GRAFO_LISTAGEM)
     List<Pagamento> findByUsuarioResponsavel(String usuarioResponsavel);
 
     /**
      * Busca pagamentos com vencimento próximo (nos próximos dias).
      */
+    @EntityGraph(Pagamento.GRAFO_LISTAGEM)
     @Query("SELECT p FROM Pagamento p WHERE p.dataVencimento BETWEEN :dataAtual AND :dataLimite AND p.status = 'PENDENTE'")
     List<Pagamento> findPagamentosVencimentoProximo(@Param("dataAtual") LocalDate dataAtual, 
                                                     @Param("dataLimite") LocalDate dataLimite);
+
+    /**
+     * Marca como ATRASADO um chunk de pagamentos pendentes vencidos antes da data informada.
+     * Trava as linhas com SKIP LOCKED e retorna os IDs alterados.
+     */
+    @Transactional
+    @Query(value = "WITH alvo AS (SELECT id FROM pagamentos WHERE status = 'PENDENTE' AND data_vencimento < :data " +
+                   "ORDER BY id LIMIT :limite FOR UPDATE SKIP LOCKED) " +
+                   "UPDATE pagamentos p SET status = 'ATRASADO', data_atualizacao = CURRENT_TIMESTAMP, " +
+                   "versao = p.versao + 1 FROM alvo WHERE p.id = alvo.id RETURNING p.id", nativeQuery = true)
+    List<Long> marcarAtrasados(@Param("data") LocalDate data, @Param("limite") int limite);
 }
@@ -0,0 +1,71 @@
+package com.gestcon.repository;
+
+import com.gestcon.model.ProcessoContratoDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório da consolidação diária de processos de contrato.
+ */
+@Repository
+public interface ProcessoContratoDiarioRepository extends JpaRepository<ProcessoContratoDiario, ProcessoContratoDiario.Chave> {
+
+    /**
+     * Total de processos por dia no período (dias inclusivos): pares (dia, quantidade).
+     */
+    @Query("SELECT d.dia, SUM(d.quantidade) FROM ProcessoContratoDiario d " +
+           "WHERE d.dia BETWEEN :inicio AND :fim GROUP BY d.dia ORDER BY d.dia")
+    List<Object[]> somarPorDia(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    /**
+     * Soma a quantidade à linha (dia, status, ação), criando-a se necessário.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO processos_contrato_diario (dia, status_atual, acao_realizada, quantidade) " +
+                   "VALUES (:dia, :statusAtual, :acaoRealizada, :quantidade) " +
+                   "ON CONFLICT (dia, status_atual, acao_realizada) " +
+                   "DO UPDATE SET quantidade = processos_contrato_diario.quantidade + EXCLUDED.quantidade",
+           nativeQuery = true)
+    int incrementar(@Param("dia") LocalDate dia, @Param("statusAtual") String statusAtual,
+                    @Param("acaoRealizada") String acaoRealizada, @Param("quantidade") long quantidade);
+
+    /**
+     * Remove a consolidação dos dias informados (inclusivos).
+     */
+    @Modifying
+    @Query("DELETE FROM ProcessoContratoDiario d WHERE d.dia BETWEEN :inicio AND :fim")
+    int excluirPeriodo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    /**
+     * Recalcula a consolidação a partir de processos_contrato no intervalo [inicio, fim).
+     * Deve rodar após excluirPeriodo, com o lock exclusivo da consolidação (bloquearExclusivo).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO processos_contrato_diario (dia, status_atual, acao_realizada, quantidade) " +
+                   "SELECT CAST(data_acao AS DATE), status_atual, acao_realizada, COUNT(*) FROM processos_contrato " +
+                   "WHERE data_acao >= :inicio AND data_acao < :fim " +
+                   "GROUP BY CAST(data_acao AS DATE), status_atual, acao_realizada",
+           nativeQuery = true)
+    int recalcular(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    /**
+     * Lock de transação compartilhado da consolidação, tomado pelos incrementos:
+     * não bloqueia outros incrementos, apenas a reconstrução.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(:chave)", nativeQuery = true)
+    Integer bloquearCompartilhado(@Param("chave") long chave);
+
+    /**
+     * Lock de transação exclusivo da consolidação, tomado pela reconstrução: espera o commit
+     * dos incrementos em andamento e impede novos até o fim da transação.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:chave)", nativeQuery = true)
+    Integer bloquearExclusivo(@Param("chave") long chave);
+}
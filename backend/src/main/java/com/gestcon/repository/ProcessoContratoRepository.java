@@ -1,6 +1,8 @@
 package com.gestcon.repository;
 
 import com.gestcon.model.ProcessoContrato;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositório JPA para a entidade ProcessoContrato.
@@ -16,29 +19,61 @@ import java.util.List;
 @Repository
 public interface ProcessoContratoRepository extends JpaRepository<ProcessoContrato, Long> {
 
+    /**
+     * Busca processo por ID já carregando as associações exibidas pela API.
+     */
+    @Override
+    @EntityGraph(ProcessoContrato.GRAFO_LISTAGEM)
+    Optional<ProcessoContrato> findById(Long id);
+
     /**
      * Busca todos os processos de um contrato ordenados por data decrescente.
      */
+    @EntityGraph(ProcessoContrato.GRAFO_LISTAGEM)
     List<ProcessoContrato> findByContratoIdOrderByDataAcaoDesc(Long contratoId);
 
+    /**
+     * Primeira página do histórico de um contrato, do mais recente para o mais antigo.
+     * Percorre o índice (contrato_id, data_acao DESC, id DESC) sem ordenar.
+     */
+    @EntityGraph(ProcessoContrato.GRAFO_LISTAGEM)
+    @Query("SELECT p FROM ProcessoContrato p WHERE p.contrato.id = :contratoId ORDER BY p.dataAcao DESC, p.id DESC")
+    List<ProcessoContrato> findHistorico(@Param("contratoId") Long contratoId, Pageable pagina);
+
+    /**
+     * Página seguinte do histórico (keyset): processos anteriores à posição (dataAcao, id) informada.
+     */
+    @EntityGraph(ProcessoContrato.GRAFO_LISTAGEM)
+    @Query("SELECT p FROM ProcessoContrato p WHERE p.contrato.id = :contratoId " +
+           "AND (p.dataAcao, p.id) < (:dataAcao, :id) ORDER BY p.dataAcao DESC, p.id DESC")
+    List<ProcessoContrato> findHistoricoAntesDe(@Param("contratoId") Long contratoId,
+                                                @Param("dataAcao") LocalDateTime dataAcao,
+                                                @Param("id") Long id,
+                                                Pageable pagina);
+
     /**
      * Busca processos por status atual.
      */
+    @EntityGraph(ProcessoContrato.GRAFO_LISTAGEM)
     List<ProcessoContrato> findByStatusAtual(String statusAtual);
 
     /**
      * Busca processos por usuário responsável.
      */
+    @EntityGraph(ProcessoContrato.GRAFO_LISTAGEM)
     List<ProcessoContrato> findByUsuarioResponsavel(String usuarioResponsavel);
 
     /**
      * Busca processos em um período específico.
      */
+    @EntityGraph(ProcessoContrato.GRAFO_LISTAGEM)
     List<ProcessoContrato> findByDataAcaoBetween(LocalDateTime dataInicio, LocalDateTime dataFim);
 
     /**
      * Busca o último processo de um contrato.
+     * Para a etapa atual prefira contratos.ultimo_processo_id (WorkflowService.obterProcessoAtual).
      */
+    @EntityGraph(ProcessoContrato.GRAFO_LISTAGEM)
     @Query("SELECT p FROM ProcessoContrato p WHERE p.contrato.id = :contratoId ORDER BY p.dataAcao DESC LIMIT 1")
     ProcessoContrato findUltimoProcessoContrato(@Param("contratoId") Long contratoId);
 
@@ -51,23 +86,30 @@ public interface ProcessoContratoRepository extends JpaRepository<ProcessoContra
     /**
      * Busca processos ativos (não arquivados).
      */
+    @EntityGraph(ProcessoContrato.GRAFO_LISTAGEM)
     List<ProcessoContrato> findByAtivoTrue();
 
     /**
      * Busca processos por ação realizada.
      */
+    @EntityGraph(ProcessoContrato.GRAFO_LISTAGEM)
     List<ProcessoContrato> findByAcaoRealizada(String acaoRealizada);
 
     /**
      * Busca processos que possuem documentos anexos.
      */
+    @EntityGraph(ProcessoContrato.GRAFO_LISTAGEM)
     @Query("SELECT p FROM ProcessoContrato p WHERE p.documentoAnexo IS NOT NULL")
     List<ProcessoContrato> findProcessosComDocumentos();
 
     /**
-     * Busca estatísticas de processos por período.
+     * Busca estatísticas de processos por período, agrupando as linhas brutas.
+     * Para consultas use a consolidação diária (EstatisticasProcessoService.obterPorPeriodo);
+     * esta consulta serve de referência para conferir a consolidação.
      */
-    @Query("SELECT DATE(p.dataAcao), COUNT(p) FROM ProcessoContrato p WHERE p.dataAcao BETWEEN :dataInicio AND :dataFim GROUP BY DATE(p.dataAcao)")
+    @Query("SELECT CAST(p.dataAcao AS LocalDate), COUNT(p) FROM ProcessoContrato p " +
+           "WHERE p.dataAcao BETWEEN :dataInicio AND :dataFim GROUP BY CAST(p.dataAcao AS LocalDate) " +
+           "ORDER BY CAST(p.dataAcao AS LocalDate)")
     List<Object[]> findEstatisticasPorPeriodo(@Param("dataInicio") LocalDateTime dataInicio, 
                                              @Param("dataFim") LocalDateTime dataFim);
 }
@@ -0,0 +1,12 @@
+package com.gestcon.repository;
+
+import com.gestcon.model.ResumoFinanceiroContrato;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositório (somente leitura) dos totais financeiros por contrato.
+ */
+@Repository
+public interface ResumoFinanceiroContratoRepository extends JpaRepository<ResumoFinanceiroContrato, Long> {
+}
@@ -0,0 +1,19 @@
+package com.gestcon.repository;
+
+import com.gestcon.model.TransicaoWorkflow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositório JPA para a entidade TransicaoWorkflow.
+ */
+@Repository
+public interface TransicaoWorkflowRepository extends JpaRepository<TransicaoWorkflow, Long> {
+
+    /**
+     * Busca as transições ativas do workflow.
+     */
+    List<TransicaoWorkflow> findByAtivoTrue();
+}
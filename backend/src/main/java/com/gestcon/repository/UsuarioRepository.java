@@ -1,13 +1,23 @@
 package com.gestcon.repository;
 
 import com.gestcon.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 /**
  * Repositório JPA para a entidade Usuario.
  */
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
-    // Métodos customizados podem ser adicionados aqui
+
+    /**
+     * Busca usuário pelo email (resultado mantido no cache de consultas).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Usuario> findByEmail(String email);
 }
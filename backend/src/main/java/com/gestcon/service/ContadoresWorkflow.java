@@ -0,0 +1,184 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.EstatisticaStatus;
+import com.gestcon.model.StatusContrato;
+import com.gestcon.repository.ContratoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+/**
+ * Quantidade e valor total (em centavos) dos contratos por status, mantidos em memória
+ * com LongAdder e atualizados a cada transição do workflow após o commit. A leitura não
+ * acessa o banco. Alterações feitas por fora do workflow (CRUD genérico, SQL direto) são
+ * corrigidas pela reconciliação periódica, que recalcula tudo a partir de contratos.
+ * Cada transação segura a trava de leitura do commit até aplicar seu delta, e a reconciliação
+ * segura a de escrita durante a consulta e a troca: a consulta vê exatamente os commits cujos
+ * deltas já foram aplicados, sem perder nem contar em dobro os que acontecem durante ela.
+ */
+@Component
+public class ContadoresWorkflow {
+
+    private static final Logger logger = Logger.getLogger(ContadoresWorkflow.class.getName());
+
+    private static final int TOTAL_STATUS = StatusContrato.values().length;
+
+    @Autowired
+    private ContratoRepository contratoRepository;
+
+    private volatile Contadores contadores = new Contadores();
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    /**
+     * Registra a mudança de status de um contrato.
+     */
+    public void registrarTransicao(StatusContrato anterior, StatusContrato novo, BigDecimal valor) {
+        if (anterior == novo) {
+            return;
+        }
+        long centavos = centavos(valor);
+        aposCommit(() -> {
+            Contadores atuais = contadores;
+            atuais.somar(anterior, -1, -centavos);
+            atuais.somar(novo, 1, centavos);
+        });
+    }
+
+    /**
+     * Registra a inclusão de um contrato.
+     */
+    public void registrarInclusao(StatusContrato status, BigDecimal valor) {
+        long centavos = centavos(valor);
+        aposCommit(() -> contadores.somar(status, 1, centavos));
+    }
+
+    /**
+     * Registra a exclusão de um contrato.
+     */
+    public void registrarExclusao(StatusContrato status, BigDecimal valor) {
+        long centavos = centavos(valor);
+        aposCommit(() -> contadores.somar(status, -1, -centavos));
+    }
+
+    /**
+     * Retorna a quantidade e o valor total de contratos em cada status, na ordem do enum.
+     */
+    public List<EstatisticaStatus> obter() {
+        Contadores atuais = contadores;
+        List<EstatisticaStatus> estatisticas = new ArrayList<>(TOTAL_STATUS);
+        for (StatusContrato status : StatusContrato.values()) {
+            int indice = status.ordinal();
+            estatisticas.add(new EstatisticaStatus(status, atuais.quantidades[indice].sum(),
+                BigDecimal.valueOf(atuais.centavos[indice].sum(), 2)));
+        }
+        return estatisticas;
+    }
+
+    /**
+     * Recalcula os contadores a partir do estado atual de contratos (um GROUP BY) e os substitui.
+     */
+    @Scheduled(fixedDelayString = "${gestcon.workflow.reconciliacao-estatisticas-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconciliar() {
+        Contadores novos = new Contadores();
+        Contadores anteriores;
+        trava.writeLock().lock();
+        try {
+            for (Object[] linha : contratoRepository.contarPorStatus()) {
+                novos.somar((StatusContrato) linha[0], ((Number) linha[1]).longValue(), centavos((BigDecimal) linha[2]));
+            }
+            anteriores = contadores;
+            contadores = novos;
+        } finally {
+            trava.writeLock().unlock();
+        }
+
+        long divergencias = 0;
+        for (int i = 0; i < TOTAL_STATUS; i++) {
+            if (anteriores.quantidades[i].sum() != novos.quantidades[i].sum()
+                    || anteriores.centavos[i].sum() != novos.centavos[i].sum()) {
+                divergencias++;
+            }
+        }
+        if (divergencias > 0) {
+            logger.info(String.format("Estatísticas do workflow reconciliadas: %d status corrigidos", divergencias));
+        }
+    }
+
+    /**
+     * Aplica o delta após o commit, segurando a trava de leitura desde antes do commit
+     * para que a reconciliação não consulte o banco entre o commit e a aplicação.
+     */
+    private void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean travado;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    trava.readLock().lock();
+                    travado = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (travado) {
+                        travado = false;
+                        trava.readLock().unlock();
+                    }
+                }
+            });
+        } else {
+            trava.readLock().lock();
+            try {
+                acao.run();
+            } finally {
+                trava.readLock().unlock();
+            }
+        }
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor == null ? 0 : valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static final class Contadores {
+
+        private final LongAdder[] quantidades = novos();
+
+        private final LongAdder[] centavos = novos();
+
+        private void somar(StatusContrato status, long quantidade, long valorCentavos) {
+            if (status == null) {
+                return;
+            }
+            quantidades[status.ordinal()].add(quantidade);
+            centavos[status.ordinal()].add(valorCentavos);
+        }
+
+        private static LongAdder[] novos() {
+            LongAdder[] adders = new LongAdder[TOTAL_STATUS];
+            for (int i = 0; i < TOTAL_STATUS; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+}
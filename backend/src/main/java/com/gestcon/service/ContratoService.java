@@ -1,6 +1,7 @@
 package com.gestcon.service;
 
 import com.gestcon.model.Contrato;
+import com.gestcon.model.StatusContrato;
 import com.gestcon.repository.ContratoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -24,6 +25,9 @@ public class ContratoService {
     @Autowired
     private NotificacaoService notificacaoService;
 
+    @Autowired
+    private ContadoresWorkflow contadores;
+
     /**
      * Busca todos os contratos.
      */
@@ -42,6 +46,9 @@ public class ContratoService {
      * Salva um contrato.
      */
     public Contrato save(Contrato contrato) {
+        if (contrato.getId() == null) {
+            contadores.registrarInclusao(contrato.getStatus(), contrato.getValorTotal());
+        }
         return contratoRepository.save(contrato);
     }
 
@@ -49,40 +56,32 @@ public class ContratoService {
      * Remove um contrato.
      */
     public void delete(Long id) {
-        contratoRepository.deleteById(id);
+        contratoRepository.findById(id).ifPresent(contrato -> {
+            contratoRepository.delete(contrato);
+            contadores.registrarExclusao(contrato.getStatus(), contrato.getValorTotal());
+        });
     }
 
     /**
      * Busca contratos por status.
      */
-    public List<Contrato> findByStatus(String status) {
-        // Implementar quando o método for adicionado ao repository
-        return contratoRepository.findAll().stream()
-                .filter(contrato -> status.equals(contrato.getStatus()))
-                .toList();
+    public List<Contrato> findByStatus(StatusContrato status) {
+        return contratoRepository.findByStatus(status);
     }
 
     /**
      * Busca contratos próximos ao vencimento.
      */
     public List<Contrato> findContratosProximosVencimento(int dias) {
-        LocalDate dataLimite = LocalDate.now().plusDays(dias);
-        return contratoRepository.findAll().stream()
-                .filter(contrato -> contrato.getVigenciaFim() != null && 
-                                  contrato.getVigenciaFim().isBefore(dataLimite) &&
-                                  contrato.getVigenciaFim().isAfter(LocalDate.now()))
-                .toList();
+        LocalDate hoje = LocalDate.now();
+        return contratoRepository.findContratosProximosVencimento(hoje, hoje.plusDays(dias));
     }
 
     /**
      * Busca contratos vencidos.
      */
     public List<Contrato> findContratosVencidos() {
-        LocalDate hoje = LocalDate.now();
-        return contratoRepository.findAll().stream()
-                .filter(contrato -> contrato.getVigenciaFim() != null && 
-                                  contrato.getVigenciaFim().isBefore(hoje))
-                .toList();
+        return contratoRepository.findContratosVencidos(LocalDate.now());
     }
 
     /**
@@ -93,7 +92,8 @@ public class ContratoService {
         if (contratoOpt.isPresent()) {
             Contrato contrato = contratoOpt.get();
             contrato.setVigenciaFim(novaVigenciaFim);
-            contrato.setStatus("RENOVADO");
+            contadores.registrarTransicao(contrato.getStatus(), StatusContrato.RENOVADO, contrato.getValorTotal());
+            contrato.setStatus(StatusContrato.RENOVADO);
             
             Contrato contratoRenovado = contratoRepository.save(contrato);
             
@@ -106,17 +106,16 @@ public class ContratoService {
     }
 
     /**
-     * Verifica contratos que precisam de atenção e envia notificações.
+     * Verifica contratos que precisam de atenção e envia notificações
+     * (um resumo por responsável, em vez de uma mensagem por contrato).
      */
     public void verificarContratosParaNotificacao() {
         // Contratos próximos ao vencimento (30 dias)
         List<Contrato> proximosVencimento = findContratosProximosVencimento(30);
-        proximosVencimento.forEach(contrato -> 
-            notificacaoService.notificarContratoVencendo(contrato, "Sistema"));
+        notificacaoService.notificarContratosVencendo(proximosVencimento);
 
         // Contratos vencidos
         List<Contrato> vencidos = findContratosVencidos();
-        vencidos.forEach(contrato -> 
-            notificacaoService.notificarContratoEncerrado(contrato, "Sistema"));
+        notificacaoService.notificarContratosEncerrados(vencidos);
     }
 }
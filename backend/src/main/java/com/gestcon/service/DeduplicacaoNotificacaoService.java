@@ -0,0 +1,130 @@
+package com.gestcon.service;
+
+import com.gestcon.model.Contrato;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Serviço que evita notificar duas vezes o mesmo contrato, tipo e período
+ * (por exemplo, o mesmo vencimento a cada execução da varredura).
+ * A fonte de verdade é a chave primária de notificacoes_deduplicacao; um filtro de Bloom
+ * em memória separa as chaves certamente novas (inseridas direto) das já vistas
+ * (apenas confirmadas por leitura), de modo que varreduras repetidas não gravam nada.
+ */
+@Service
+public class DeduplicacaoNotificacaoService {
+
+    private static final Logger logger = Logger.getLogger(DeduplicacaoNotificacaoService.class.getName());
+
+    private static final String METRICA = "gestcon.notificacoes.deduplicacao";
+
+    private static final String SQL_REGISTRAR =
+        "INSERT INTO notificacoes_deduplicacao (contrato_id, tipo, periodo) " +
+        "SELECT c.contrato_id, ?, c.periodo FROM unnest(?, ?) AS c(contrato_id, periodo) " +
+        "ON CONFLICT DO NOTHING RETURNING contrato_id, periodo";
+
+    private static final String SQL_CONFIRMAR =
+        "SELECT d.contrato_id, d.periodo FROM notificacoes_deduplicacao d " +
+        "JOIN unnest(?, ?) AS c(contrato_id, periodo) " +
+        "ON d.contrato_id = c.contrato_id AND d.periodo = c.periodo WHERE d.tipo = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final FiltroBloom filtro;
+
+    public DeduplicacaoNotificacaoService(
+            @Value("${gestcon.notificacao.deduplicacao.capacidade:100000}") int capacidade,
+            @Value("${gestcon.notificacao.deduplicacao.taxa-falso-positivo:0.01}") double taxaFalsoPositivo) {
+        this.filtro = new FiltroBloom(capacidade, taxaFalsoPositivo);
+    }
+
+    /**
+     * Registra as chaves (contrato, tipo, período) e retorna apenas os contratos ainda não
+     * notificados. Participa da transação do chamador: se ela for desfeita, o registro também é.
+     */
+    public List<Contrato> filtrarNaoNotificados(String tipo, List<Contrato> contratos,
+                                                Function<Contrato, String> periodo) {
+        Map<String, Contrato> porChave = new LinkedHashMap<>();
+        for (Contrato contrato : contratos) {
+            if (contrato.getId() != null) {
+                porChave.putIfAbsent(chave(contrato.getId(), tipo, periodo.apply(contrato)), contrato);
+            }
+        }
+
+        List<Contrato> novos = new ArrayList<>();
+        List<Contrato> suspeitos = new ArrayList<>();
+        porChave.forEach((chave, contrato) -> (filtro.talvezContenha(chave) ? suspeitos : novos).add(contrato));
+
+        // Confirma no banco as chaves que o filtro indica como já vistas (pode ser falso positivo)
+        if (!suspeitos.isEmpty()) {
+            Set<String> confirmadas = consultar(SQL_CONFIRMAR, tipo, suspeitos, periodo, false);
+            suspeitos.stream()
+                .filter(contrato -> !confirmadas.contains(chave(contrato.getId(), tipo, periodo.apply(contrato))))
+                .forEach(novos::add);
+        }
+
+        List<Contrato> naoNotificados = new ArrayList<>();
+        if (!novos.isEmpty()) {
+            Set<String> registradas = consultar(SQL_REGISTRAR, tipo, novos, periodo, true);
+            novos.stream()
+                .filter(contrato -> registradas.contains(chave(contrato.getId(), tipo, periodo.apply(contrato))))
+                .forEach(naoNotificados::add);
+        }
+        porChave.keySet().forEach(filtro::adicionar);
+
+        int suprimidos = porChave.size() - naoNotificados.size();
+        meterRegistry.counter(METRICA, "tipo", tipo, "resultado", "enviada").increment(naoNotificados.size());
+        meterRegistry.counter(METRICA, "tipo", tipo, "resultado", "suprimida").increment(suprimidos);
+        logger.info(String.format("Deduplicação %s: %d novos, %d suprimidos", tipo, naoNotificados.size(), suprimidos));
+        return naoNotificados;
+    }
+
+    /**
+     * Executa o comando com os pares (contrato, período) como arrays e devolve as chaves retornadas.
+     */
+    private Set<String> consultar(String sql, String tipo, List<Contrato> contratos,
+                                  Function<Contrato, String> periodo, boolean tipoPrimeiro) {
+        Long[] ids = contratos.stream().map(Contrato::getId).toArray(Long[]::new);
+        String[] periodos = contratos.stream().map(periodo).toArray(String[]::new);
+        Set<String> chaves = new HashSet<>();
+        jdbcTemplate.query(sql,
+            ps -> {
+                Array arrayIds = ps.getConnection().createArrayOf("bigint", ids);
+                Array arrayPeriodos = ps.getConnection().createArrayOf("varchar", periodos);
+                int indice = 1;
+                if (tipoPrimeiro) {
+                    ps.setString(indice++, tipo);
+                }
+                ps.setArray(indice++, arrayIds);
+                ps.setArray(indice++, arrayPeriodos);
+                if (!tipoPrimeiro) {
+                    ps.setString(indice, tipo);
+                }
+            },
+            rs -> {
+                chaves.add(chave(rs.getLong("contrato_id"), tipo, rs.getString("periodo")));
+            });
+        return chaves;
+    }
+
+    private static String chave(Long contratoId, String tipo, String periodo) {
+        return contratoId + "|" + tipo + "|" + periodo;
+    }
+}
@@ -0,0 +1,126 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.EstatisticaDiaria;
+import com.gestcon.model.ProcessoContrato;
+import com.gestcon.repository.ProcessoContratoDiarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Mantém a consolidação diária de processos_contrato (processos_contrato_diario) e serve
+ * as estatísticas por período a partir dela. As transições do workflow incrementam a
+ * consolidação na mesma transação; um job diário recalcula os dias recentes a partir das
+ * linhas brutas, corrigindo processos gravados por outros caminhos.
+ * Incrementos e reconstrução se serializam por um advisory lock de transação (compartilhado
+ * nos incrementos, exclusivo em cada chunk da reconstrução): sem ele, um incremento cujos
+ * processos ainda não estavam commitados quando o chunk contou as linhas brutas seria
+ * apagado ou contado em dobro.
+ */
+@Service
+@Transactional
+public class EstatisticasProcessoService {
+
+    private static final Logger logger = Logger.getLogger(EstatisticasProcessoService.class.getName());
+
+    // Chave do advisory lock que serializa incrementos e reconstrução da consolidação
+    private static final long LOCK_CONSOLIDACAO = 7_150_022L;
+
+    private record Chave(LocalDate dia, String statusAtual, String acaoRealizada) {
+    }
+
+    private static final Comparator<Chave> ORDEM_CHAVES = Comparator.comparing(Chave::dia)
+        .thenComparing(Chave::statusAtual).thenComparing(Chave::acaoRealizada);
+
+    @Autowired
+    private ProcessoContratoDiarioRepository diarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${gestcon.workflow.consolidacao.dias-recalculo:2}")
+    private int diasRecalculo;
+
+    @Value("${gestcon.workflow.consolidacao.dias-por-chunk:31}")
+    private int diasPorChunk;
+
+    /**
+     * Incrementa a consolidação com os processos recém-gravados, um comando por
+     * (dia, status, ação) e sempre na mesma ordem, para não gerar deadlock entre transações.
+     */
+    public void registrar(Collection<ProcessoContrato> processos) {
+        Map<Chave, Long> quantidades = new TreeMap<>(ORDEM_CHAVES);
+        for (ProcessoContrato processo : processos) {
+            quantidades.merge(new Chave(processo.getDataAcao().toLocalDate(), processo.getStatusAtual(),
+                processo.getAcaoRealizada()), 1L, Long::sum);
+        }
+        if (quantidades.isEmpty()) {
+            return;
+        }
+        diarioRepository.bloquearCompartilhado(LOCK_CONSOLIDACAO);
+        quantidades.forEach((chave, quantidade) ->
+            diarioRepository.incrementar(chave.dia(), chave.statusAtual(), chave.acaoRealizada(), quantidade));
+    }
+
+    /**
+     * Total de processos por dia no período (dias inclusivos), lido da consolidação.
+     */
+    @Transactional(readOnly = true)
+    public List<EstatisticaDiaria> obterPorPeriodo(LocalDate inicio, LocalDate fim) {
+        List<EstatisticaDiaria> estatisticas = new ArrayList<>();
+        for (Object[] linha : diarioRepository.somarPorDia(inicio, fim)) {
+            estatisticas.add(new EstatisticaDiaria((LocalDate) linha[0], ((Number) linha[1]).longValue()));
+        }
+        return estatisticas;
+    }
+
+    /**
+     * Recalcula os últimos "dias-recalculo" dias a partir de processos_contrato.
+     */
+    @Scheduled(cron = "${gestcon.workflow.consolidacao.cron:0 30 1 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recalcularRecentes() {
+        LocalDate hoje = LocalDate.now();
+        reconstruir(hoje.minusDays(diasRecalculo), hoje);
+    }
+
+    /**
+     * Reconstrói a consolidação dos dias informados (inclusivos) a partir das linhas brutas,
+     * em chunks de "dias-por-chunk" dias, cada um em sua própria transação.
+     * Usado também como carga inicial (backfill). Retorna o número de linhas consolidadas.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long reconstruir(LocalDate inicio, LocalDate fim) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        long linhas = 0;
+        for (LocalDate dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(diasPorChunk)) {
+            LocalDate inicioChunk = dia;
+            LocalDate fimChunk = min(dia.plusDays(diasPorChunk - 1L), fim);
+            linhas += transacao.execute(status -> {
+                diarioRepository.bloquearExclusivo(LOCK_CONSOLIDACAO);
+                diarioRepository.excluirPeriodo(inicioChunk, fimChunk);
+                return diarioRepository.recalcular(inicioChunk.atStartOfDay(), fimChunk.plusDays(1).atStartOfDay());
+            });
+        }
+        logger.info(String.format("Consolidação diária de processos reconstruída de %s a %s: %d linhas", inicio, fim, linhas));
+        return linhas;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,175 @@
+package com.gestcon.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Subgraph;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Serviço responsável pela exportação completa das entidades em NDJSON ou CSV.
+ * Lê as linhas por cursor JDBC (somente avanço) e escreve direto na saída,
+ * mantendo o consumo de memória constante independente do volume exportado.
+ */
+@Service
+public class ExportacaoService {
+
+    public static final int TAMANHO_FETCH = 500;
+
+    public enum Formato { NDJSON, CSV }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Exporta todas as linhas da entidade, ordenadas por ID, no formato informado.
+     * As associações informadas são carregadas na mesma consulta (fetch graph).
+     */
+    @Transactional(readOnly = true)
+    public <T> long exportar(Class<T> entityClass, Formato formato, OutputStream saida,
+                             String... associacoes) throws IOException {
+        String jpql = "SELECT e FROM " + entityClass.getSimpleName() + " e ORDER BY e.id";
+        try (Stream<T> linhas = entityManager.createQuery(jpql, entityClass)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, criarGrafo(entityClass, associacoes))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, TAMANHO_FETCH)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            return formato == Formato.CSV
+                ? escreverCsv(entityClass, linhas, saida)
+                : escreverNdjson(linhas, saida);
+        }
+    }
+
+    private <T> long escreverNdjson(Stream<T> linhas, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long total = 0;
+        for (T linha : (Iterable<T>) linhas::iterator) {
+            jsonWriter.writeValue(writer, linha);
+            writer.write('\n');
+            liberarContexto(++total);
+        }
+        writer.flush();
+        return total;
+    }
+
+    private <T> long escreverCsv(Class<T> entityClass, Stream<T> linhas, OutputStream saida) throws IOException {
+        List<String> colunas = colunasCsv(entityClass);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        writer.write(String.join(",", colunas));
+        writer.write("\r\n");
+
+        long total = 0;
+        for (T linha : (Iterable<T>) linhas::iterator) {
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(linha);
+            for (int i = 0; i < colunas.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String coluna = colunas.get(i);
+                Object valor = wrapper.isReadableProperty(coluna) ? wrapper.getPropertyValue(coluna) : null;
+                writer.write(escaparCsv(valor));
+            }
+            writer.write("\r\n");
+            liberarContexto(++total);
+        }
+        writer.flush();
+        return total;
+    }
+
+    /**
+     * Colunas do CSV: atributos simples na ordem de declaração e o ID das associações.
+     */
+    private List<String> colunasCsv(Class<?> entityClass) {
+        List<String> colunas = new ArrayList<>();
+        for (Field campo : entityClass.getDeclaredFields()) {
+            if (campo.isAnnotationPresent(ManyToOne.class)) {
+                colunas.add(campo.getName() + ".id");
+            } else if (campo.isAnnotationPresent(Id.class) || BeanUtils.isSimpleValueType(campo.getType())
+                    || campo.getType() == BigDecimal.class) {
+                if (BeanUtils.getPropertyDescriptor(entityClass, campo.getName()) != null) {
+                    colunas.add(campo.getName());
+                }
+            }
+        }
+        return colunas;
+    }
+
+    /**
+     * Monta um entity graph a partir de caminhos como "contrato.empresa".
+     */
+    private <T> EntityGraph<T> criarGrafo(Class<T> entityClass, String... caminhos) {
+        EntityGraph<T> grafo = entityManager.createEntityGraph(entityClass);
+        Map<String, Subgraph<?>> subgrafos = new HashMap<>();
+        for (String caminho : caminhos) {
+            String[] partes = caminho.split("\\.");
+            Subgraph<?> pai = null;
+            String prefixo = "";
+            for (int i = 0; i < partes.length - 1; i++) {
+                prefixo = prefixo.isEmpty() ? partes[i] : prefixo + "." + partes[i];
+                Subgraph<?> atual = pai;
+                String parte = partes[i];
+                pai = subgrafos.computeIfAbsent(prefixo,
+                    chave -> atual == null ? grafo.addSubgraph(parte) : atual.addSubgraph(parte));
+            }
+            String ultimo = partes[partes.length - 1];
+            if (!subgrafos.containsKey(caminho)) {
+                if (pai == null) {
+                    grafo.addAttributeNodes(ultimo);
+                } else {
+                    pai.addAttributeNodes(ultimo);
+                }
+            }
+        }
+        return grafo;
+    }
+
+    private static String escaparCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Desanexa as entidades já escritas para que o contexto de persistência não cresça.
+     */
+    private void liberarContexto(long total) {
+        if (total % TAMANHO_FETCH == 0) {
+            entityManager.clear();
+        }
+    }
+}
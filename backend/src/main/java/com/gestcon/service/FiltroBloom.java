@@ -0,0 +1,63 @@
+package com.gestcon.service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Filtro de Bloom simples para chaves texto.
+ * Responde "com certeza ausente" ou "talvez presente"; nunca gera falso negativo.
+ * Usa hashing duplo (Kirsch-Mitzenmacher) sobre um FNV-1a de 64 bits.
+ */
+public final class FiltroBloom {
+
+    private final long[] bits;
+
+    private final int totalBits;
+
+    private final int funcoes;
+
+    /**
+     * @param capacidade       Número esperado de chaves
+     * @param taxaFalsoPositivo Taxa de falso positivo desejada (ex.: 0.01)
+     */
+    public FiltroBloom(int capacidade, double taxaFalsoPositivo) {
+        if (capacidade <= 0 || taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Capacidade ou taxa de falso positivo inválida");
+        }
+        long m = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.totalBits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+        this.bits = new long[(totalBits + 63) / 64];
+        this.funcoes = Math.max(1, (int) Math.round((double) totalBits / capacidade * Math.log(2)));
+    }
+
+    public synchronized void adicionar(String chave) {
+        long hash = fnv1a(chave);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < funcoes; i++) {
+            int indice = Math.floorMod(h1 + i * h2, totalBits);
+            bits[indice >>> 6] |= 1L << indice;
+        }
+    }
+
+    public synchronized boolean talvezContenha(String chave) {
+        long hash = fnv1a(chave);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < funcoes; i++) {
+            int indice = Math.floorMod(h1 + i * h2, totalBits);
+            if ((bits[indice >>> 6] & (1L << indice)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long fnv1a(String chave) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : chave.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
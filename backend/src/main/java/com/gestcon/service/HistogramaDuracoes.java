@@ -0,0 +1,76 @@
+package com.gestcon.service;
+
+/**
+ * Histograma de durações (em segundos) com baldes logarítmicos, no estilo DDSketch:
+ * cada quantil é estimado com erro relativo de até 1%, usando memória fixa.
+ * Dois histogramas podem ser mesclados somando os baldes, o que permite agregar
+ * por responsável e depois por status sem revisitar o histórico.
+ * Não é thread-safe; o acesso concorrente é controlado por quem o usa.
+ */
+public final class HistogramaDuracoes {
+
+    private static final double PRECISAO = 0.01;
+
+    private static final double GAMA = (1 + PRECISAO) / (1 - PRECISAO);
+
+    private static final double LOG_GAMA = Math.log(GAMA);
+
+    // Cobre durações até GAMA^1100 (~3e9 segundos, mais de 90 anos)
+    private static final int BALDES = 1100;
+
+    private final long[] contagens = new long[BALDES];
+
+    private long zeros;
+
+    private long total;
+
+    private double soma;
+
+    public void registrar(long segundos) {
+        if (segundos <= 0) {
+            zeros++;
+        } else {
+            contagens[Math.min(BALDES - 1, (int) Math.ceil(Math.log(segundos) / LOG_GAMA))]++;
+            soma += segundos;
+        }
+        total++;
+    }
+
+    public void mesclar(HistogramaDuracoes outro) {
+        for (int i = 0; i < BALDES; i++) {
+            contagens[i] += outro.contagens[i];
+        }
+        zeros += outro.zeros;
+        total += outro.total;
+        soma += outro.soma;
+    }
+
+    /**
+     * Estima o quantil q (0 a 1) em segundos; 0 se o histograma estiver vazio.
+     */
+    public double quantil(double q) {
+        if (total == 0) {
+            return 0;
+        }
+        double posicao = Math.max(0, Math.min(1, q)) * (total - 1);
+        long acumulado = zeros;
+        if (acumulado > posicao) {
+            return 0;
+        }
+        for (int i = 0; i < BALDES; i++) {
+            acumulado += contagens[i];
+            if (acumulado > posicao) {
+                return 2 * Math.pow(GAMA, i) / (GAMA + 1);
+            }
+        }
+        return 2 * Math.pow(GAMA, BALDES - 1) / (GAMA + 1);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public double getMedia() {
+        return total == 0 ? 0 : soma / total;
+    }
+}
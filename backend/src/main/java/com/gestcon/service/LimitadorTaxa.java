@@ -0,0 +1,72 @@
+package com.gestcon.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limitador de taxa por balde de fichas (token bucket).
+ * O balde enche à taxa configurada até a capacidade (rajada); cada envio consome uma ficha.
+ * Pedidos maiores que o saldo reservam as fichas a crédito e aguardam o tempo correspondente,
+ * de modo que a vazão média nunca passa da taxa. Como a espera acontece antes do envio, um
+ * pedido não pode passar da capacidade: o chamador divide envios maiores em partes.
+ * Usa ReentrantLock em vez de synchronized para não fixar threads virtuais durante a espera.
+ */
+public class LimitadorTaxa {
+
+    private final double fichasPorNano;
+
+    private final double capacidade;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double fichas;
+
+    private long ultimaRecarga;
+
+    /**
+     * @param porSegundo Fichas repostas por segundo (0 ou negativo desativa o limite)
+     * @param capacidade Máximo de fichas acumuladas
+     */
+    public LimitadorTaxa(double porSegundo, int capacidade) {
+        this.fichasPorNano = porSegundo / TimeUnit.SECONDS.toNanos(1);
+        this.capacidade = Math.max(1, capacidade);
+        this.fichas = this.capacidade;
+        this.ultimaRecarga = System.nanoTime();
+    }
+
+    /**
+     * Consome as fichas, bloqueando a thread atual até que a taxa permita o envio.
+     */
+    public void adquirir(int quantidade) throws InterruptedException {
+        if (quantidade > capacidade) {
+            throw new IllegalArgumentException("Pedido de " + quantidade + " fichas maior que a capacidade " + getCapacidade());
+        }
+        long espera = reservar(quantidade);
+        if (espera > 0) {
+            TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+
+    public int getCapacidade() {
+        return (int) capacidade;
+    }
+
+    /**
+     * Reserva as fichas e retorna quantos nanossegundos o chamador deve aguardar.
+     */
+    long reservar(int quantidade) {
+        if (fichasPorNano <= 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            long agora = System.nanoTime();
+            fichas = Math.min(capacidade, fichas + (agora - ultimaRecarga) * fichasPorNano);
+            ultimaRecarga = agora;
+            fichas -= quantidade;
+            return fichas >= 0 ? 0 : (long) Math.ceil(-fichas / fichasPorNano);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
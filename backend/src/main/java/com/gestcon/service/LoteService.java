@@ -0,0 +1,132 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.ResultadoLote;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Serviço para gravação de entidades em lote.
+ * Divide a carga em blocos, cada um em sua própria transação, para que o Hibernate
+ * agrupe os comandos em lotes JDBC e o contexto de persistência não cresça.
+ */
+@Service
+public class LoteService {
+
+    private static final Logger logger = Logger.getLogger(LoteService.class.getName());
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${gestcon.lote.tamanho-chunk:500}")
+    private int tamanhoChunk;
+
+    /**
+     * Insere as entidades em blocos de transação.
+     * A falha de um bloco desfaz só esse bloco; suas posições são devolvidas em "falhas".
+     */
+    public <T, ID> ResultadoLote<ID> inserir(JpaRepository<T, ID> repository, List<T> entidades) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        List<ID> ids = new ArrayList<>(entidades.size());
+        List<Integer> falhas = new ArrayList<>();
+
+        for (int inicio = 0; inicio < entidades.size(); inicio += tamanhoChunk) {
+            int fim = Math.min(inicio + tamanhoChunk, entidades.size());
+            List<T> bloco = entidades.subList(inicio, fim);
+            try {
+                ids.addAll(transacao.execute(status -> {
+                    List<T> salvas = repository.saveAll(bloco);
+                    entityManager.flush();
+                    List<ID> gravados = salvas.stream().<ID>map(this::identificador).toList();
+                    entityManager.clear();
+                    return gravados;
+                }));
+            } catch (RuntimeException e) {
+                registrarFalha(IntStream.range(inicio, fim).boxed().toList(), falhas, e);
+            }
+        }
+        return new ResultadoLote<>(ids.size(), ids, List.of(), falhas, List.of());
+    }
+
+    /**
+     * Atualiza as entidades existentes em blocos de transação, aplicando o atualizador
+     * sobre cada registro carregado. IDs ausentes no banco, posições sem ID e posições de
+     * blocos que falharam são devolvidos no resultado.
+     */
+    public <T, ID> ResultadoLote<ID> atualizar(JpaRepository<T, ID> repository, List<T> entidades,
+                                               BiConsumer<T, T> atualizador) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        List<ID> ids = new ArrayList<>(entidades.size());
+        List<ID> naoEncontrados = new ArrayList<>();
+        List<Integer> falhas = new ArrayList<>();
+        List<Integer> semId = new ArrayList<>();
+
+        for (int inicio = 0; inicio < entidades.size(); inicio += tamanhoChunk) {
+            int fim = Math.min(inicio + tamanhoChunk, entidades.size());
+            Map<ID, T> detalhesPorId = new LinkedHashMap<>();
+            List<Integer> posicoes = new ArrayList<>();
+            for (int i = inicio; i < fim; i++) {
+                T detalhes = entidades.get(i);
+                ID id = identificador(detalhes);
+                if (id != null) {
+                    detalhesPorId.put(id, detalhes);
+                    posicoes.add(i);
+                } else {
+                    semId.add(i);
+                }
+            }
+            if (detalhesPorId.isEmpty()) {
+                continue;
+            }
+
+            try {
+                Set<ID> ausentes = transacao.execute(status -> {
+                    Set<ID> pendentes = new LinkedHashSet<>(detalhesPorId.keySet());
+                    for (T existente : repository.findAllById(detalhesPorId.keySet())) {
+                        ID id = identificador(existente);
+                        pendentes.remove(id);
+                        atualizador.accept(existente, detalhesPorId.get(id));
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                    return pendentes;
+                });
+                // Só após o commit: se o bloco falhar, nada dele entra como gravado
+                detalhesPorId.keySet().stream().filter(id -> !ausentes.contains(id)).forEach(ids::add);
+                naoEncontrados.addAll(ausentes);
+            } catch (RuntimeException e) {
+                registrarFalha(posicoes, falhas, e);
+            }
+        }
+        return new ResultadoLote<>(ids.size(), ids, naoEncontrados, falhas, semId);
+    }
+
+    private void registrarFalha(List<Integer> posicoes, List<Integer> falhas, RuntimeException e) {
+        falhas.addAll(posicoes);
+        logger.warning(String.format("Falha ao gravar bloco do lote (%d itens a partir da posição %d): %s",
+            posicoes.size(), posicoes.get(0), e.getMessage()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, ID> ID identificador(T entidade) {
+        return (ID) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entidade);
+    }
+}
@@ -0,0 +1,114 @@
+package com.gestcon.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modelo de texto pré-compilado para notificações.
+ * A fonte é analisada uma única vez em trechos literais e variáveis ({{nome}});
+ * a renderização apenas concatena os trechos em um StringBuilder pré-dimensionado.
+ * Em modelos HTML, {{nome}} é escapado e {{{nome}}} é inserido sem escape.
+ */
+public final class ModeloNotificacao {
+
+    private final String[] literais;
+
+    private final String[] variaveis;
+
+    private final boolean[] escapar;
+
+    private final int tamanhoEstimado;
+
+    private ModeloNotificacao(String[] literais, String[] variaveis, boolean[] escapar) {
+        this.literais = literais;
+        this.variaveis = variaveis;
+        this.escapar = escapar;
+        int tamanho = 0;
+        for (String literal : literais) {
+            tamanho += literal.length();
+        }
+        this.tamanhoEstimado = tamanho + variaveis.length * 16;
+    }
+
+    /**
+     * Compila um modelo de texto puro.
+     */
+    public static ModeloNotificacao compilar(String fonte) {
+        return compilar(fonte, false);
+    }
+
+    /**
+     * Compila um modelo; com html=true os valores de {{nome}} são escapados.
+     */
+    public static ModeloNotificacao compilar(String fonte, boolean html) {
+        List<String> literais = new ArrayList<>();
+        List<String> variaveis = new ArrayList<>();
+        List<Boolean> escapar = new ArrayList<>();
+
+        int posicao = 0;
+        int inicio;
+        while ((inicio = fonte.indexOf("{{", posicao)) >= 0) {
+            boolean bruto = fonte.startsWith("{{{", inicio);
+            String fechamento = bruto ? "}}}" : "}}";
+            int abertura = inicio + (bruto ? 3 : 2);
+            int fim = fonte.indexOf(fechamento, abertura);
+            if (fim < 0) {
+                throw new IllegalArgumentException("Variável não fechada na posição " + inicio + " do modelo");
+            }
+            String nome = fonte.substring(abertura, fim).trim();
+            if (nome.isEmpty()) {
+                throw new IllegalArgumentException("Variável sem nome na posição " + inicio + " do modelo");
+            }
+            literais.add(fonte.substring(posicao, inicio));
+            variaveis.add(nome);
+            escapar.add(html && !bruto);
+            posicao = fim + fechamento.length();
+        }
+        literais.add(fonte.substring(posicao));
+
+        boolean[] escaparArray = new boolean[escapar.size()];
+        for (int i = 0; i < escaparArray.length; i++) {
+            escaparArray[i] = escapar.get(i);
+        }
+        return new ModeloNotificacao(literais.toArray(String[]::new), variaveis.toArray(String[]::new), escaparArray);
+    }
+
+    public String renderizar(Map<String, ?> contexto) {
+        StringBuilder destino = new StringBuilder(tamanhoEstimado);
+        renderizar(contexto, destino);
+        return destino.toString();
+    }
+
+    /**
+     * Renderiza o modelo no final do destino informado. Variáveis ausentes viram texto vazio.
+     */
+    public void renderizar(Map<String, ?> contexto, StringBuilder destino) {
+        for (int i = 0; i < variaveis.length; i++) {
+            destino.append(literais[i]);
+            Object valor = contexto.get(variaveis[i]);
+            if (valor != null) {
+                if (escapar[i]) {
+                    escaparHtml(valor.toString(), destino);
+                } else {
+                    destino.append(valor);
+                }
+            }
+        }
+        destino.append(literais[variaveis.length]);
+    }
+
+    static void escaparHtml(String texto, StringBuilder destino) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '<' -> destino.append("&lt;");
+                case '>' -> destino.append("&gt;");
+                case '&' -> destino.append("&amp;");
+                case '"' -> destino.append("&quot;");
+                case '\'' -> destino.append("&#39;");
+                default -> destino.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.gestcon.service;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Serviço que carrega e mantém em cache os modelos de notificação.
+ * Os modelos (notificacoes/modelos.properties e notificacoes/layout.html) são
+ * compilados uma única vez na inicialização; uma chave inexistente é erro de programação.
+ */
+@Service
+public class ModeloNotificacaoService {
+
+    private static final String MODELOS = "notificacoes/modelos.properties";
+
+    private static final String LAYOUT_HTML = "notificacoes/layout.html";
+
+    private final Map<String, ModeloNotificacao> modelos = new HashMap<>();
+
+    private final ModeloNotificacao layoutHtml;
+
+    public ModeloNotificacaoService() {
+        try {
+            Properties fontes = PropertiesLoaderUtils.loadProperties(
+                new EncodedResource(new ClassPathResource(MODELOS), StandardCharsets.UTF_8));
+            fontes.stringPropertyNames().forEach(chave ->
+                modelos.put(chave, ModeloNotificacao.compilar(fontes.getProperty(chave))));
+
+            try (InputStream layout = new ClassPathResource(LAYOUT_HTML).getInputStream()) {
+                layoutHtml = ModeloNotificacao.compilar(StreamUtils.copyToString(layout, StandardCharsets.UTF_8), true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível carregar os modelos de notificação", e);
+        }
+    }
+
+    /**
+     * Retorna o modelo compilado, por exemplo "VENCIMENTO.assunto".
+     */
+    public ModeloNotificacao obter(String chave) {
+        ModeloNotificacao modelo = modelos.get(chave);
+        if (modelo == null) {
+            throw new IllegalArgumentException("Modelo de notificação não encontrado: " + chave);
+        }
+        return modelo;
+    }
+
+    public String renderizar(String chave, Map<String, ?> contexto) {
+        return obter(chave).renderizar(contexto);
+    }
+
+    /**
+     * Monta a versão HTML do email a partir do título e do texto puro já renderizado.
+     */
+    public String renderizarHtml(String titulo, String texto) {
+        StringBuilder corpo = new StringBuilder(texto.length() + texto.length() / 8);
+        ModeloNotificacao.escaparHtml(texto, corpo);
+        String corpoHtml = corpo.toString().replace("\n", "<br>\n");
+        return layoutHtml.renderizar(Map.of("titulo", titulo, "corpo", corpoHtml));
+    }
+}
@@ -0,0 +1,171 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.NotificacaoInApp;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Distribui notificações in-app em tempo real por Server-Sent Events, por usuário destinatário.
+ * As conexões SSE são assíncronas (não prendem threads do servidor); cada assinante tem uma
+ * fila limitada drenada em uma thread virtual própria, de modo que a escrita bloqueante de um
+ * cliente lento (buffer TCP cheio) não atrasa a entrega aos demais. A publicação nunca
+ * bloqueia: se um cliente lento enche a fila, os eventos mais antigos são descartados e o
+ * cliente recupera o estado completo em GET /api/notificacoes/nao-lidas ao reconectar.
+ */
+@Component
+public class NotificacaoBroadcaster {
+
+    private static final Logger logger = Logger.getLogger(NotificacaoBroadcaster.class.getName());
+
+    private final Map<String, Set<Assinante>> assinantes = new ConcurrentHashMap<>();
+
+    private final AtomicLong descartados = new AtomicLong();
+
+    private final long timeoutMs;
+
+    private final int capacidadeFila;
+
+    private final ExecutorService executor;
+
+    public NotificacaoBroadcaster(@Value("${gestcon.notificacao.sse.timeout-ms:1800000}") long timeoutMs,
+                                  @Value("${gestcon.notificacao.sse.capacidade-fila:100}") int capacidadeFila) {
+        this.timeoutMs = timeoutMs;
+        this.capacidadeFila = capacidadeFila;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Registra uma nova conexão SSE para o usuário.
+     */
+    public SseEmitter assinar(String usuario) {
+        return assinar(usuario, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter assinar(String usuario, SseEmitter emitter) {
+        Assinante assinante = new Assinante(usuario, emitter);
+        assinantes.computeIfAbsent(usuario, chave -> ConcurrentHashMap.newKeySet()).add(assinante);
+
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError(erro -> remover(assinante));
+        return emitter;
+    }
+
+    /**
+     * Publica a notificação após o commit da transação que a criou, para que o cliente
+     * nunca receba uma notificação que foi desfeita.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publicar(NotificacaoInApp notificacao) {
+        Set<Assinante> destino = assinantes.get(notificacao.usuarioDestinatario());
+        if (destino == null) {
+            return;
+        }
+        destino.forEach(assinante -> assinante.enfileirar(
+            SseEmitter.event().id(String.valueOf(notificacao.id())).name("notificacao")
+                .data(notificacao, MediaType.APPLICATION_JSON)));
+    }
+
+    /**
+     * Envia um comentário periódico para manter as conexões abertas em proxies
+     * e detectar clientes que já desconectaram.
+     */
+    @Scheduled(fixedDelayString = "${gestcon.notificacao.sse.heartbeat-ms:25000}")
+    public void enviarHeartbeat() {
+        assinantes.values().forEach(conjunto ->
+            conjunto.forEach(assinante -> assinante.enfileirar(SseEmitter.event().comment("ping"))));
+    }
+
+    public int getTotalConexoes() {
+        return assinantes.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public long getTotalDescartados() {
+        return descartados.get();
+    }
+
+    private void remover(Assinante assinante) {
+        assinantes.computeIfPresent(assinante.usuario, (chave, conjunto) -> {
+            conjunto.remove(assinante);
+            return conjunto.isEmpty() ? null : conjunto;
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+        assinantes.values().forEach(conjunto -> conjunto.forEach(assinante -> assinante.emitter.complete()));
+        assinantes.clear();
+    }
+
+    /**
+     * Conexão de um usuário com sua fila de eventos pendentes.
+     */
+    private class Assinante {
+
+        private final String usuario;
+
+        private final SseEmitter emitter;
+
+        private final Queue<SseEmitter.SseEventBuilder> fila = new ArrayBlockingQueue<>(capacidadeFila);
+
+        private final AtomicBoolean drenando = new AtomicBoolean();
+
+        Assinante(String usuario, SseEmitter emitter) {
+            this.usuario = usuario;
+            this.emitter = emitter;
+        }
+
+        void enfileirar(SseEmitter.SseEventBuilder evento) {
+            while (!fila.offer(evento)) {
+                if (fila.poll() != null) {
+                    descartados.incrementAndGet();
+                }
+            }
+            agendarDrenagem();
+        }
+
+        private void agendarDrenagem() {
+            if (drenando.compareAndSet(false, true)) {
+                executor.execute(this::drenar);
+            }
+        }
+
+        private void drenar() {
+            try {
+                SseEmitter.SseEventBuilder evento;
+                while ((evento = fila.poll()) != null) {
+                    emitter.send(evento);
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.fine("Conexão SSE encerrada para " + usuario + ": " + e.getMessage());
+                fila.clear();
+                remover(this);
+                return;
+            } finally {
+                drenando.set(false);
+            }
+            // Evento enfileirado entre o último poll e a liberação da flag
+            if (!fila.isEmpty()) {
+                agendarDrenagem();
+            }
+        }
+    }
+}
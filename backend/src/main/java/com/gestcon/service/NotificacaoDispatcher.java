@@ -0,0 +1,268 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.ResultadoEnvio;
+import com.gestcon.model.Notificacao;
+import com.gestcon.repository.NotificacaoRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Drena a outbox de notificações em segundo plano, enviando os emails pendentes.
+ * Cada lote reservado é dividido entre até "concorrencia" conexões SMTP simultâneas (limite
+ * de conexões por cliente aceito pelo relay), cada uma em uma thread virtual, que passa quase
+ * todo o tempo bloqueada em I/O ou aguardando o limitador. Cada parte é enviada em blocos de
+ * no máximo "rajada" mensagens por conexão (JavaMailSender.send(MimeMessage...)), e cada bloco
+ * só sai depois de obter suas fichas, respeitando a cota de envio do relay por segundo.
+ * Falhas são reagendadas com backoff exponencial até o limite de tentativas,
+ * de modo que a latência da API não depende do servidor SMTP.
+ */
+@Component
+public class NotificacaoDispatcher {
+
+    private static final Logger logger = Logger.getLogger(NotificacaoDispatcher.class.getName());
+
+    @Autowired
+    private NotificacaoRepository notificacaoRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ModeloNotificacaoService modelos;
+
+    @Value("${gestcon.notificacao.email.remetente:noreply@gestcon.gov.br}")
+    private String remetente;
+
+    @Value("${gestcon.notificacao.outbox.tamanho-lote:50}")
+    private int tamanhoLote;
+
+    @Value("${gestcon.notificacao.outbox.max-tentativas:8}")
+    private int maxTentativas;
+
+    @Value("${gestcon.notificacao.outbox.espera-inicial-segundos:30}")
+    private long esperaInicialSegundos;
+
+    @Value("${gestcon.notificacao.outbox.espera-maxima-segundos:3600}")
+    private long esperaMaximaSegundos;
+
+    @Value("${gestcon.notificacao.outbox.reserva-segundos:300}")
+    private long reservaSegundos;
+
+    @Value("${gestcon.notificacao.outbox.concorrencia:2}")
+    private int concorrencia;
+
+    @Value("${gestcon.notificacao.outbox.taxa-por-segundo:10}")
+    private double taxaPorSegundo;
+
+    @Value("${gestcon.notificacao.outbox.rajada:50}")
+    private int rajada;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private LimitadorTaxa limitador;
+
+    /**
+     * Reserva e envia lotes de notificações pendentes até esvaziar a outbox.
+     */
+    @Scheduled(fixedDelayString = "${gestcon.notificacao.outbox.intervalo-ms:5000}")
+    public void processarPendentes() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        List<Notificacao> reservadas;
+        do {
+            LocalDateTime agora = LocalDateTime.now();
+            reservadas = transacao.execute(status ->
+                notificacaoRepository.reservarPendentes(agora, agora.plusSeconds(reservaSegundos), tamanhoLote));
+            enviarEmParalelo(reservadas);
+        } while (reservadas.size() >= tamanhoLote);
+    }
+
+    /**
+     * Envia imediatamente notificações já gravadas (e reservadas) na outbox, sem esperar
+     * a próxima drenagem. Falhas seguem o backoff normal e são retomadas pela outbox.
+     */
+    public CompletableFuture<List<ResultadoEnvio>> enviarAgora(List<Notificacao> notificacoes) {
+        return CompletableFuture.supplyAsync(() -> {
+            enviarEmParalelo(notificacoes);
+            return notificacoes.stream()
+                .map(notificacao -> new ResultadoEnvio(notificacao.getUsuarioDestinatario(), notificacao.getId(),
+                    notificacao.getStatusEnvio(), notificacao.getUltimoErro()))
+                .toList();
+        }, executor);
+    }
+
+    /**
+     * Divide as mensagens entre as conexões configuradas e aguarda todos os envios.
+     */
+    private void enviarEmParalelo(List<Notificacao> notificacoes) {
+        if (notificacoes.isEmpty()) {
+            return;
+        }
+        List<List<Notificacao>> grupos = agrupar(notificacoes);
+        int partes = Math.max(1, Math.min(concorrencia, grupos.size()));
+        if (partes == 1) {
+            enviarLote(grupos);
+            return;
+        }
+
+        int tamanhoParte = (grupos.size() + partes - 1) / partes;
+        List<CompletableFuture<Void>> envios = new ArrayList<>(partes);
+        for (int inicio = 0; inicio < grupos.size(); inicio += tamanhoParte) {
+            List<List<Notificacao>> parte = grupos.subList(inicio, Math.min(inicio + tamanhoParte, grupos.size()));
+            envios.add(CompletableFuture.runAsync(() -> enviarLote(parte), executor));
+        }
+        CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Envia um lote de emails (um por grupo) por uma única conexão SMTP
+     * e registra o resultado de cada notificação.
+     */
+    private void enviarLote(List<List<Notificacao>> grupos) {
+        Map<MimeMessage, List<Notificacao>> porMensagem = new IdentityHashMap<>();
+        List<MimeMessage> mensagens = new ArrayList<>(grupos.size());
+        List<Notificacao> notificacoes = new ArrayList<>();
+        for (List<Notificacao> grupo : grupos) {
+            notificacoes.addAll(grupo);
+            try {
+                MimeMessage mensagem = criarMensagem(grupo);
+                porMensagem.put(mensagem, grupo);
+                mensagens.add(mensagem);
+            } catch (MessagingException e) {
+                grupo.forEach(notificacao -> registrarFalha(notificacao, e.getMessage()));
+            }
+        }
+
+        Map<Object, Exception> falhas = new IdentityHashMap<>();
+        LimitadorTaxa limitador = getLimitador();
+        for (int inicio = 0; inicio < mensagens.size(); inicio += limitador.getCapacidade()) {
+            List<MimeMessage> bloco = mensagens.subList(inicio, Math.min(inicio + limitador.getCapacidade(), mensagens.size()));
+            try {
+                limitador.adquirir(bloco.size());
+                mailSender.send(bloco.toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    bloco.forEach(mensagem -> falhas.put(mensagem, e));
+                } else {
+                    falhas.putAll(e.getFailedMessages());
+                }
+            } catch (MailException e) {
+                bloco.forEach(mensagem -> falhas.put(mensagem, e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                mensagens.subList(inicio, mensagens.size()).forEach(mensagem -> falhas.put(mensagem, e));
+                break;
+            }
+        }
+
+        for (MimeMessage mensagem : mensagens) {
+            Exception erro = falhas.get(mensagem);
+            for (Notificacao notificacao : porMensagem.get(mensagem)) {
+                if (erro == null) {
+                    notificacao.marcarEnviada();
+                } else {
+                    registrarFalha(notificacao, erro.getMessage());
+                }
+            }
+        }
+        registrarEnvios(notificacoes);
+        logger.info(String.format("Lote de emails processado: %d notificações em %d mensagens, %d falhas",
+            notificacoes.size(), mensagens.size(), notificacoes.stream().filter(n -> !"ENVIADO".equals(n.getStatusEnvio())).count()));
+    }
+
+    /**
+     * Grava o resultado do envio com UPDATEs por ID restritos às colunas de entrega, em uma
+     * transação. As notificações reservadas estão desanexadas: um merge (saveAll) gravaria
+     * de volta valores antigos de lida/data_leitura e desfaria uma leitura feita durante o envio.
+     */
+    private void registrarEnvios(List<Notificacao> notificacoes) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            notificacoes.forEach(notificacao -> notificacaoRepository.atualizarEnvio(notificacao.getId(),
+                notificacao.getStatusEnvio(), notificacao.getTentativas(), notificacao.getProximaTentativa(),
+                notificacao.getDataEnvio(), notificacao.getUltimoErro())));
+    }
+
+    /**
+     * Separa o lote em grupos de envio: cada notificação agrupável se junta às demais do
+     * mesmo destinatário e tipo; as outras são enviadas sozinhas.
+     */
+    private List<List<Notificacao>> agrupar(List<Notificacao> notificacoes) {
+        List<List<Notificacao>> grupos = new ArrayList<>(notificacoes.size());
+        Map<String, List<Notificacao>> resumos = new HashMap<>();
+        for (Notificacao notificacao : notificacoes) {
+            if (Boolean.TRUE.equals(notificacao.getAgrupavel())) {
+                String chave = notificacao.getUsuarioDestinatario() + "|" + notificacao.getTipo();
+                resumos.computeIfAbsent(chave, k -> {
+                    List<Notificacao> grupo = new ArrayList<>();
+                    grupos.add(grupo);
+                    return grupo;
+                }).add(notificacao);
+            } else {
+                grupos.add(List.of(notificacao));
+            }
+        }
+        return grupos;
+    }
+
+    private MimeMessage criarMensagem(List<Notificacao> grupo) throws MessagingException {
+        Notificacao primeira = grupo.get(0);
+        String assunto = primeira.getTitulo();
+        String texto = primeira.getMensagem();
+        if (grupo.size() > 1) {
+            assunto = String.format("Resumo (%d avisos): %s", grupo.size(), primeira.getTitulo());
+            texto = grupo.stream().map(Notificacao::getMensagem).collect(Collectors.joining("\n----------\n\n"));
+        }
+
+        MimeMessage mensagem = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mensagem, true, StandardCharsets.UTF_8.name());
+        helper.setTo(primeira.getUsuarioDestinatario());
+        helper.setSubject(assunto);
+        helper.setText(texto, modelos.renderizarHtml(assunto, texto));
+        helper.setFrom(remetente);
+        return mensagem;
+    }
+
+    private void registrarFalha(Notificacao notificacao, String erro) {
+        notificacao.registrarFalha(erro, maxTentativas, esperaInicialSegundos, esperaMaximaSegundos);
+        logger.warning(String.format("Falha ao enviar email (notificação %d, tentativa %d): %s",
+            notificacao.getId(), notificacao.getTentativas(), erro));
+    }
+
+    private synchronized LimitadorTaxa getLimitador() {
+        if (limitador == null) {
+            limitador = new LimitadorTaxa(taxaPorSegundo, rajada);
+        }
+        return limitador;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+}
@@ -1,17 +1,33 @@
 package com.gestcon.service;
 
+import com.gestcon.dto.NotificacaoInApp;
+import com.gestcon.dto.ResultadoEnvio;
 import com.gestcon.model.Contrato;
+import com.gestcon.model.Notificacao;
+import com.gestcon.repository.NotificacaoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * Serviço responsável por gerenciar notificações do sistema GestCon.
- * Envia notificações por email e mantém notificações in-app.
+ * Grava as notificações na outbox (tabela notificacoes) dentro da transação do chamador;
+ * o envio dos emails é feito em segundo plano pelo NotificacaoDispatcher.
+ * Assuntos e textos vêm dos modelos pré-compilados de ModeloNotificacaoService.
  */
 @Service
 public class NotificacaoService {
@@ -19,218 +35,238 @@ public class NotificacaoService {
     private static final Logger logger = Logger.getLogger(NotificacaoService.class.getName());
 
     @Autowired
-    private JavaMailSender mailSender;
+    private NotificacaoRepository notificacaoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ModeloNotificacaoService modelos;
+
+    @Autowired
+    private DeduplicacaoNotificacaoService deduplicacao;
+
+    @Autowired
+    private NotificacaoDispatcher dispatcher;
+
+    @Value("${gestcon.notificacao.outbox.reserva-segundos:300}")
+    private long reservaSegundos;
+
+    @Value("${gestcon.notificacao.resumo.habilitado:true}")
+    private boolean resumoHabilitado;
+
+    @Value("${gestcon.notificacao.resumo.janela-minutos:60}")
+    private long janelaResumoMinutos;
 
     /**
      * Notifica sobre contrato em análise.
      */
     public void notificarAnaliseContrato(Contrato contrato, String usuarioResponsavel) {
-        String assunto = "Contrato em Análise - " + contrato.getNumeroContrato();
-        String mensagem = String.format(
-            "O contrato %s da empresa %s está em análise.\n\n" +
-            "Responsável: %s\n" +
-            "Valor: R$ %s\n" +
-            "Vigência: %s a %s",
-            contrato.getNumeroContrato(),
-            contrato.getEmpresa().getNome(),
-            usuarioResponsavel,
-            contrato.getValorTotal(),
-            contrato.getVigenciaInicio(),
-            contrato.getVigenciaFim()
-        );
-
-        enviarEmail(contrato.getResponsavel(), assunto, mensagem);
-        criarNotificacaoInApp(contrato.getId(), "ANALISE", assunto, mensagem);
+        notificarContrato(contrato, "ANALISE", contexto(contrato, usuarioResponsavel));
     }
 
     /**
      * Notifica sobre aprovação de contrato.
      */
     public void notificarAprovacaoContrato(Contrato contrato, String usuarioResponsavel) {
-        String assunto = "Contrato Aprovado - " + contrato.getNumeroContrato();
-        String mensagem = String.format(
-            "O contrato %s foi aprovado com sucesso!\n\n" +
-            "Empresa: %s\n" +
-            "Aprovado por: %s\n" +
-            "Próximo passo: Assinatura do contrato",
-            contrato.getNumeroContrato(),
-            contrato.getEmpresa().getNome(),
-            usuarioResponsavel
-        );
-
-        enviarEmail(contrato.getResponsavel(), assunto, mensagem);
-        criarNotificacaoInApp(contrato.getId(), "APROVACAO", assunto, mensagem);
+        notificarContrato(contrato, "APROVACAO", contexto(contrato, usuarioResponsavel));
     }
 
     /**
      * Notifica sobre rejeição de contrato.
      */
     public void notificarRejeicaoContrato(Contrato contrato, String usuarioResponsavel) {
-        String assunto = "Contrato Rejeitado - " + contrato.getNumeroContrato();
-        String mensagem = String.format(
-            "O contrato %s foi rejeitado.\n\n" +
-            "Empresa: %s\n" +
-            "Rejeitado por: %s\n" +
-            "Ação necessária: Revisar documentação e reenviar",
-            contrato.getNumeroContrato(),
-            contrato.getEmpresa().getNome(),
-            usuarioResponsavel
-        );
-
-        enviarEmail(contrato.getResponsavel(), assunto, mensagem);
-        criarNotificacaoInApp(contrato.getId(), "REJEICAO", assunto, mensagem);
+        notificarContrato(contrato, "REJEICAO", contexto(contrato, usuarioResponsavel));
     }
 
     /**
      * Notifica sobre contrato ativo.
      */
     public void notificarContratoAtivo(Contrato contrato, String usuarioResponsavel) {
-        String assunto = "Contrato Ativado - " + contrato.getNumeroContrato();
-        String mensagem = String.format(
-            "O contrato %s está agora ATIVO!\n\n" +
-            "Empresa: %s\n" +
-            "Vigência: %s a %s\n" +
-            "Valor Total: R$ %s",
-            contrato.getNumeroContrato(),
-            contrato.getEmpresa().getNome(),
-            contrato.getVigenciaInicio(),
-            contrato.getVigenciaFim(),
-            contrato.getValorTotal()
-        );
-
-        enviarEmail(contrato.getResponsavel(), assunto, mensagem);
-        criarNotificacaoInApp(contrato.getId(), "ATIVO", assunto, mensagem);
+        notificarContrato(contrato, "ATIVO", contexto(contrato, usuarioResponsavel));
     }
 
     /**
      * Notifica sobre contrato vencendo.
      */
     public void notificarContratoVencendo(Contrato contrato, String usuarioResponsavel) {
-        String assunto = "ALERTA: Contrato Vencendo - " + contrato.getNumeroContrato();
-        String mensagem = String.format(
-            "ATENÇÃO! O contrato %s está próximo do vencimento.\n\n" +
-            "Empresa: %s\n" +
-            "Data de Vencimento: %s\n" +
-            "Ação necessária: Iniciar processo de renovação",
-            contrato.getNumeroContrato(),
-            contrato.getEmpresa().getNome(),
-            contrato.getVigenciaFim()
-        );
-
-        enviarEmail(contrato.getResponsavel(), assunto, mensagem);
-        criarNotificacaoInApp(contrato.getId(), "VENCIMENTO", assunto, mensagem);
+        notificarContrato(contrato, "VENCIMENTO", contexto(contrato, usuarioResponsavel));
     }
 
     /**
      * Notifica sobre contrato encerrado.
      */
     public void notificarContratoEncerrado(Contrato contrato, String usuarioResponsavel) {
-        String assunto = "Contrato Encerrado - " + contrato.getNumeroContrato();
-        String mensagem = String.format(
-            "O contrato %s foi encerrado.\n\n" +
-            "Empresa: %s\n" +
-            "Encerrado por: %s\n" +
-            "Data de Encerramento: %s",
-            contrato.getNumeroContrato(),
-            contrato.getEmpresa().getNome(),
-            usuarioResponsavel,
-            java.time.LocalDate.now()
-        );
-
-        enviarEmail(contrato.getResponsavel(), assunto, mensagem);
-        criarNotificacaoInApp(contrato.getId(), "ENCERRAMENTO", assunto, mensagem);
+        notificarContrato(contrato, "ENCERRAMENTO", contexto(contrato, usuarioResponsavel));
     }
 
     /**
      * Notifica sobre contrato inadimplente.
      */
     public void notificarContratoInadimplente(Contrato contrato, String usuarioResponsavel) {
-        String assunto = "URGENTE: Contrato Inadimplente - " + contrato.getNumeroContrato();
-        String mensagem = String.format(
-            "ALERTA! O contrato %s está INADIMPLENTE.\n\n" +
-            "Empresa: %s\n" +
-            "Identificado por: %s\n" +
-            "Ação necessária: Contatar empresa e verificar pendências",
-            contrato.getNumeroContrato(),
-            contrato.getEmpresa().getNome(),
-            usuarioResponsavel
-        );
-
-        enviarEmail(contrato.getResponsavel(), assunto, mensagem);
-        criarNotificacaoInApp(contrato.getId(), "INADIMPLENCIA", assunto, mensagem);
-    }
-
-    /**
-     * Envia notificação por email.
-     */
-    private void enviarEmail(String destinatario, String assunto, String mensagem) {
-        try {
-            SimpleMailMessage email = new SimpleMailMessage();
-            email.setTo(destinatario);
-            email.setSubject(assunto);
-            email.setText(mensagem);
-            email.setFrom("noreply@gestcon.gov.br");
-
-            mailSender.send(email);
-            logger.info("Email enviado para: " + destinatario);
-        } catch (Exception e) {
-            logger.severe("Erro ao enviar email: " + e.getMessage());
+        notificarContrato(contrato, "INADIMPLENCIA", contexto(contrato, usuarioResponsavel));
+    }
+
+    /**
+     * Notifica os responsáveis sobre contratos próximos do vencimento, com um resumo por responsável.
+     */
+    public void notificarContratosVencendo(List<Contrato> contratos) {
+        notificarEmResumo(contratos, "VENCIMENTO", this::notificarContratoVencendo);
+    }
+
+    /**
+     * Notifica os responsáveis sobre contratos encerrados, com um resumo por responsável.
+     */
+    public void notificarContratosEncerrados(List<Contrato> contratos) {
+        notificarEmResumo(contratos, "ENCERRAMENTO", this::notificarContratoEncerrado);
+    }
+
+    /**
+     * Agrupa os contratos por responsável e grava uma única notificação de resumo para cada um.
+     * O email fica agendado para o fim da janela de resumo, quando o dispatcher junta ainda
+     * os resumos do mesmo tipo gravados na mesma janela. Com o modo resumo desligado,
+     * envia uma notificação por contrato. Contratos já notificados para o mesmo tipo e
+     * fim de vigência em varreduras anteriores são descartados.
+     */
+    private void notificarEmResumo(List<Contrato> todos, String tipo, BiConsumer<Contrato, String> individual) {
+        List<Contrato> contratos = deduplicacao.filtrarNaoNotificados(tipo, todos,
+            contrato -> String.valueOf(contrato.getVigenciaFim()));
+        if (contratos.isEmpty()) {
+            return;
+        }
+        if (!resumoHabilitado) {
+            contratos.forEach(contrato -> individual.accept(contrato, "Sistema"));
+            return;
         }
+
+        Map<String, List<Contrato>> porResponsavel = contratos.stream()
+            .filter(contrato -> Objects.nonNull(contrato.getResponsavel()))
+            .collect(Collectors.groupingBy(Contrato::getResponsavel, LinkedHashMap::new, Collectors.toList()));
+
+        ModeloNotificacao item = modelos.obter(tipo + ".resumo.item");
+        porResponsavel.forEach((destinatario, doResponsavel) -> {
+            Map<String, Object> resumo = Map.of("quantidade", doResponsavel.size());
+            StringBuilder mensagem = new StringBuilder(modelos.renderizar(tipo + ".resumo.texto", resumo));
+            doResponsavel.forEach(contrato -> item.renderizar(contexto(contrato, "Sistema"), mensagem));
+
+            Notificacao notificacao = new Notificacao(null, destinatario, tipo,
+                modelos.renderizar(tipo + ".resumo.assunto", resumo), mensagem.toString());
+            notificacao.agendarParaResumo(janelaResumoMinutos);
+            criarNotificacaoInApp(notificacaoRepository.save(notificacao));
+        });
+        logger.info(String.format("Resumo %s: %d contratos em %d notificações",
+            tipo, contratos.size(), porResponsavel.size()));
+    }
+
+    /**
+     * Renderiza o modelo do tipo, grava o email na outbox e publica a notificação in-app.
+     */
+    private void notificarContrato(Contrato contrato, String tipo, Map<String, Object> contexto) {
+        Notificacao notificacao = enfileirarEmail(contrato.getId(), contrato.getResponsavel(), tipo,
+            modelos.renderizar(tipo + ".assunto", contexto), modelos.renderizar(tipo + ".texto", contexto));
+        criarNotificacaoInApp(notificacao);
+    }
+
+    /**
+     * Contexto plano com os dados do contrato usados nos modelos.
+     * A empresa é lida uma única vez aqui, e não a cada trecho do texto.
+     */
+    private Map<String, Object> contexto(Contrato contrato, String usuario) {
+        Map<String, Object> contexto = new HashMap<>(16);
+        contexto.put("numeroContrato", contrato.getNumeroContrato());
+        contexto.put("empresa", contrato.getEmpresa() != null ? contrato.getEmpresa().getNome() : null);
+        contexto.put("usuario", usuario);
+        contexto.put("valor", contrato.getValorTotal());
+        contexto.put("vigenciaInicio", contrato.getVigenciaInicio());
+        contexto.put("vigenciaFim", contrato.getVigenciaFim());
+        contexto.put("data", LocalDate.now());
+        return contexto;
+    }
+
+    /**
+     * Grava a notificação na outbox para envio por email em segundo plano.
+     * Participa da transação do chamador: se a operação for desfeita, o email não é enviado.
+     */
+    private Notificacao enfileirarEmail(Long contratoId, String destinatario, String tipo,
+                                        String assunto, String mensagem) {
+        Notificacao notificacao = notificacaoRepository.save(
+            new Notificacao(contratoId, destinatario, tipo, assunto, mensagem));
+        logger.fine("Email enfileirado para: " + destinatario);
+        return notificacao;
     }
 
     /**
-     * Cria notificação in-app (para ser implementada com WebSocket).
+     * Publica a notificação (já gravada em notificacoes) para os clientes conectados por SSE.
+     * A entrega ocorre após o commit, pelo NotificacaoBroadcaster.
      */
-    private void criarNotificacaoInApp(Long contratoId, String tipo, String titulo, String mensagem) {
-        // TODO: Implementar sistema de notificações in-app
-        // Pode usar WebSocket para notificações em tempo real
-        logger.info(String.format("Notificação in-app criada - Tipo: %s, Contrato: %d", tipo, contratoId));
+    private void criarNotificacaoInApp(Notificacao notificacao) {
+        eventPublisher.publishEvent(NotificacaoInApp.de(notificacao));
+        logger.fine(String.format("Notificação in-app criada - Tipo: %s, Contrato: %d",
+            notificacao.getTipo(), notificacao.getContratoId()));
     }
 
     /**
      * Envia notificação para múltiplos destinatários.
+     * As notificações são gravadas na outbox já reservadas para envio imediato; após o commit,
+     * o dispatcher as envia em paralelo (threads virtuais, limitado pela cota do relay).
+     * O retorno completa com o resultado de cada destinatário; falhas continuam na outbox
+     * e são tentadas de novo com backoff.
      */
-    public void enviarNotificacaoMultipla(List<String> destinatarios, String assunto, String mensagem) {
-        for (String destinatario : destinatarios) {
-            enviarEmail(destinatario, assunto, mensagem);
+    public CompletableFuture<List<ResultadoEnvio>> enviarNotificacaoMultipla(List<String> destinatarios,
+                                                                            String assunto, String mensagem) {
+        List<Notificacao> notificacoes = notificacaoRepository.saveAll(destinatarios.stream()
+            .distinct()
+            .map(destinatario -> {
+                Notificacao notificacao = new Notificacao(null, destinatario, "GERAL", assunto, mensagem);
+                notificacao.setProximaTentativa(notificacao.getDataCriacao().plusSeconds(reservaSegundos));
+                return notificacao;
+            })
+            .toList());
+
+        CompletableFuture<List<ResultadoEnvio>> resultado = new CompletableFuture<>();
+        Runnable enviar = () -> dispatcher.enviarAgora(notificacoes).whenComplete((resultados, erro) -> {
+            if (erro != null) {
+                resultado.completeExceptionally(erro);
+            } else {
+                resultado.complete(resultados);
+            }
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enviar.run();
+                    } else {
+                        resultado.cancel(false);
+                    }
+                }
+            });
+        } else {
+            enviar.run();
         }
+        return resultado;
     }
 
     /**
      * Notifica sobre upload de documento.
      */
     public void notificarUploadDocumento(Contrato contrato, String nomeDocumento, String usuarioUpload) {
-        String assunto = "Novo Documento - " + contrato.getNumeroContrato();
-        String mensagem = String.format(
-            "Um novo documento foi adicionado ao contrato %s.\n\n" +
-            "Documento: %s\n" +
-            "Enviado por: %s\n" +
-            "Empresa: %s",
-            contrato.getNumeroContrato(),
-            nomeDocumento,
-            usuarioUpload,
-            contrato.getEmpresa().getNome()
-        );
-
-        enviarEmail(contrato.getResponsavel(), assunto, mensagem);
+        Map<String, Object> contexto = contexto(contrato, usuarioUpload);
+        contexto.put("documento", nomeDocumento);
+        enfileirarEmail(contrato.getId(), contrato.getResponsavel(), "DOCUMENTO",
+            modelos.renderizar("DOCUMENTO.assunto", contexto), modelos.renderizar("DOCUMENTO.texto", contexto));
     }
 
     /**
      * Notifica sobre pagamento realizado.
      */
     public void notificarPagamentoRealizado(Contrato contrato, String numeroParcela, String valor) {
-        String assunto = "Pagamento Realizado - " + contrato.getNumeroContrato();
-        String mensagem = String.format(
-            "Pagamento realizado para o contrato %s.\n\n" +
-            "Parcela: %s\n" +
-            "Valor: R$ %s\n" +
-            "Empresa: %s",
-            contrato.getNumeroContrato(),
-            numeroParcela,
-            valor,
-            contrato.getEmpresa().getNome()
-        );
-
-        enviarEmail(contrato.getResponsavel(), assunto, mensagem);
+        Map<String, Object> contexto = contexto(contrato, null);
+        contexto.put("parcela", numeroParcela);
+        contexto.put("valor", valor);
+        enfileirarEmail(contrato.getId(), contrato.getResponsavel(), "PAGAMENTO",
+            modelos.renderizar("PAGAMENTO.assunto", contexto), modelos.renderizar("PAGAMENTO.texto", contexto));
     }
 }
@@ -0,0 +1,195 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.RegraParcelamento;
+import com.gestcon.dto.ResultadoParcelamento;
+import com.gestcon.repository.ContratoRepository;
+import com.gestcon.repository.PagamentoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Serviço que gera o cronograma de parcelas (pagamentos) dos contratos a partir do valor total.
+ * As parcelas são gravadas por INSERT JDBC em lote, sem passar pelo contexto de persistência,
+ * e os IDs são reservados em blocos da sequência pagamentos_seq, como faz o Hibernate.
+ */
+@Service
+public class ParcelamentoService {
+
+    private static final Logger logger = Logger.getLogger(ParcelamentoService.class.getName());
+
+    private static final String INSERT_PARCELA =
+        "INSERT INTO pagamentos (id, contrato_id, numero_parcela, valor_previsto, data_vencimento, status, " +
+        "data_criacao, usuario_responsavel, versao) VALUES (?, ?, ?, ?, ?, 'PENDENTE', ?, ?, 0)";
+
+    // Incremento de pagamentos_seq (igual ao allocationSize de Pagamento): cada nextval reserva um bloco de IDs
+    private static final int INCREMENTO_SEQUENCIA = 50;
+
+    @Autowired
+    private ContratoRepository contratoRepository;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${gestcon.lote.tamanho-chunk:500}")
+    private int tamanhoChunk;
+
+    /**
+     * Parcela calculada, ainda não gravada.
+     */
+    record Parcela(String numero, BigDecimal valor, LocalDate vencimento) {
+    }
+
+    /**
+     * Gera as parcelas de um único contrato em uma transação.
+     */
+    public ResultadoParcelamento gerarParcelas(Long contratoId, RegraParcelamento regra) {
+        return gerarParcelas(List.of(contratoId), regra);
+    }
+
+    /**
+     * Gera as parcelas de vários contratos com a mesma regra. Os contratos são processados em
+     * blocos de "tamanho-chunk", cada bloco em sua própria transação; as parcelas de um contrato
+     * são sempre gravadas juntas. Contratos que já possuem parcelas, ou cujo valor
+     * total não cobre R$ 0,01 por parcela, são ignorados.
+     */
+    public ResultadoParcelamento gerarParcelas(List<Long> contratoIds, RegraParcelamento regra) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        List<Long> ids = contratoIds.stream().distinct().sorted().toList();
+
+        List<Long> contratos = new ArrayList<>();
+        List<Long> naoEncontrados = new ArrayList<>();
+        List<Long> ignorados = new ArrayList<>();
+        int parcelas = 0;
+        for (int inicio = 0; inicio < ids.size(); inicio += tamanhoChunk) {
+            List<Long> bloco = ids.subList(inicio, Math.min(inicio + tamanhoChunk, ids.size()));
+            ResultadoParcelamento parcial = transacao.execute(status -> gerarBloco(bloco, regra));
+            contratos.addAll(parcial.contratos());
+            naoEncontrados.addAll(parcial.naoEncontrados());
+            ignorados.addAll(parcial.ignorados());
+            parcelas += parcial.parcelas();
+        }
+
+        logger.info(String.format("Parcelamento: %d parcelas geradas para %d contratos (%d ignorados, %d não encontrados)",
+            parcelas, contratos.size(), ignorados.size(), naoEncontrados.size()));
+        return new ResultadoParcelamento(contratos, parcelas, naoEncontrados, ignorados);
+    }
+
+    private ResultadoParcelamento gerarBloco(List<Long> bloco, RegraParcelamento regra) {
+        Map<Long, BigDecimal> valores = new LinkedHashMap<>();
+        for (Object[] linha : contratoRepository.bloquearValorTotalByIdIn(bloco)) {
+            valores.put(((Number) linha[0]).longValue(), (BigDecimal) linha[1]);
+        }
+        List<Long> naoEncontrados = bloco.stream().filter(id -> !valores.containsKey(id)).toList();
+
+        Set<Long> ignorados = new HashSet<>(valores.isEmpty() ? List.of()
+            : pagamentoRepository.findContratosComParcelas(valores.keySet()));
+        valores.forEach((id, valorTotal) -> {
+            if (!isParcelavel(valorTotal, regra.quantidade())) {
+                ignorados.add(id);
+            }
+        });
+        valores.keySet().removeAll(ignorados);
+
+        Map<Long, List<Parcela>> cronogramas = new LinkedHashMap<>();
+        valores.forEach((contratoId, valorTotal) -> cronogramas.put(contratoId, calcularParcelas(valorTotal, regra)));
+        int total = cronogramas.size() * regra.quantidade();
+
+        Iterator<Long> idsParcelas = reservarIds(total).iterator();
+        Timestamp dataCriacao = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> linhas = new ArrayList<>(total);
+        cronogramas.forEach((contratoId, parcelas) -> parcelas.forEach(parcela ->
+            linhas.add(new Object[] {idsParcelas.next(), contratoId, parcela.numero(), parcela.valor(),
+                Date.valueOf(parcela.vencimento()), dataCriacao, regra.usuarioResponsavel()})));
+        jdbcTemplate.batchUpdate(INSERT_PARCELA, linhas, tamanhoChunk, (ps, linha) -> {
+            for (int i = 0; i < linha.length; i++) {
+                ps.setObject(i + 1, linha[i]);
+            }
+        });
+
+        return new ResultadoParcelamento(new ArrayList<>(cronogramas.keySet()), total,
+            naoEncontrados, ignorados.stream().sorted().toList());
+    }
+
+    /**
+     * Divide o valor total em parcelas iguais em centavos; os centavos restantes vão para a
+     * parcela indicada pela regra. Os vencimentos são calculados a partir do primeiro vencimento,
+     * para que o dia não desloque em meses curtos (31/01, 28/02, 31/03...).
+     */
+    static List<Parcela> calcularParcelas(BigDecimal valorTotal, RegraParcelamento regra) {
+        int quantidade = regra.quantidade();
+        if (!isParcelavel(valorTotal, quantidade)) {
+            throw new IllegalArgumentException(String.format(
+                "Valor total %s não permite %d parcelas de pelo menos R$ 0,01", valorTotal, quantidade));
+        }
+        long totalCentavos = centavos(valorTotal);
+        long base = totalCentavos / quantidade;
+        long resto = totalCentavos % quantidade;
+
+        List<Parcela> parcelas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            long centavos = base + switch (regra.arredondamentoOuPadrao()) {
+                case PRIMEIRA_PARCELA -> i == 0 ? resto : 0;
+                case ULTIMA_PARCELA -> i == quantidade - 1 ? resto : 0;
+                case DISTRIBUIR -> i < resto ? 1 : 0;
+            };
+            LocalDate vencimento = regra.primeiroVencimento().plusMonths((long) i * regra.periodicidade().getMeses());
+            parcelas.add(new Parcela((i + 1) + "/" + quantidade, BigDecimal.valueOf(centavos, 2), vencimento));
+        }
+        return parcelas;
+    }
+
+    /**
+     * Indica se o valor total cobre a quantidade de parcelas com ao menos um centavo cada.
+     */
+    static boolean isParcelavel(BigDecimal valorTotal, int quantidade) {
+        return valorTotal != null && valorTotal.signum() > 0 && centavos(valorTotal) >= quantidade;
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_EVEN).movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Reserva IDs de pagamentos_seq com um nextval por bloco de INCREMENTO_SEQUENCIA IDs.
+     * Cada valor devolvido é o maior ID do bloco (otimizador "pooled" do Hibernate),
+     * portanto os IDs nunca coincidem com os gerados pelas entidades.
+     */
+    private List<Long> reservarIds(int quantidade) {
+        List<Long> ids = new ArrayList<>(quantidade);
+        while (ids.size() < quantidade) {
+            int blocos = (quantidade - ids.size() + INCREMENTO_SEQUENCIA - 1) / INCREMENTO_SEQUENCIA;
+            for (Long maior : jdbcTemplate.queryForList(
+                    "SELECT nextval('pagamentos_seq') FROM generate_series(1, ?)", Long.class, blocos)) {
+                for (long id = Math.max(1, maior - INCREMENTO_SEQUENCIA + 1); id <= maior && ids.size() < quantidade; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+}
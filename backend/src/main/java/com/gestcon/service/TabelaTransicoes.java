@@ -0,0 +1,93 @@
+package com.gestcon.service;
+
+import com.gestcon.model.StatusContrato;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabela de transições do workflow compilada em matriz de bits.
+ * Cada status de origem guarda um long com um bit por status de destino (ordinal),
+ * e a lista de próximos status já pronta e imutável. Depois de compilada, a tabela
+ * não muda: uma recarga cria outra instância, que é trocada atomicamente.
+ * As consultas não alocam memória.
+ */
+public final class TabelaTransicoes {
+
+    private static final StatusContrato[] STATUS = StatusContrato.values();
+
+    private final long[] destinos;
+
+    private final List<List<StatusContrato>> proximos;
+
+    private TabelaTransicoes(long[] destinos) {
+        this.destinos = destinos;
+        List<List<StatusContrato>> listas = new ArrayList<>(STATUS.length);
+        for (StatusContrato origem : STATUS) {
+            List<StatusContrato> lista = new ArrayList<>();
+            for (StatusContrato destino : STATUS) {
+                if ((destinos[origem.ordinal()] & bit(destino)) != 0) {
+                    lista.add(destino);
+                }
+            }
+            listas.add(List.copyOf(lista));
+        }
+        this.proximos = List.copyOf(listas);
+    }
+
+    /**
+     * Compila o grafo de transições (origem -> destinos permitidos).
+     */
+    public static TabelaTransicoes compilar(Map<StatusContrato, ? extends Collection<StatusContrato>> grafo) {
+        if (STATUS.length > Long.SIZE) {
+            throw new IllegalStateException("A matriz de transições suporta no máximo 64 status");
+        }
+        long[] destinos = new long[STATUS.length];
+        grafo.forEach((origem, permitidos) -> permitidos.forEach(destino -> destinos[origem.ordinal()] |= bit(destino)));
+        return new TabelaTransicoes(destinos);
+    }
+
+    public boolean isTransicaoValida(StatusContrato origem, StatusContrato destino) {
+        return origem != null && destino != null && (destinos[origem.ordinal()] & bit(destino)) != 0;
+    }
+
+    public List<StatusContrato> getProximos(StatusContrato origem) {
+        return origem == null ? List.of() : proximos.get(origem.ordinal());
+    }
+
+    /**
+     * Status sem nenhuma transição de saída (ou nulo) é considerado final.
+     */
+    public boolean isFinal(StatusContrato status) {
+        return status == null || destinos[status.ordinal()] == 0;
+    }
+
+    /**
+     * Grafo equivalente, para exibição.
+     */
+    public Map<StatusContrato, List<StatusContrato>> comoMapa() {
+        Map<StatusContrato, List<StatusContrato>> mapa = new EnumMap<>(StatusContrato.class);
+        for (StatusContrato origem : STATUS) {
+            mapa.put(origem, proximos.get(origem.ordinal()));
+        }
+        return mapa;
+    }
+
+    private static long bit(StatusContrato status) {
+        return 1L << status.ordinal();
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        return outro instanceof TabelaTransicoes tabela && Arrays.equals(destinos, tabela.destinos);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(destinos);
+    }
+}
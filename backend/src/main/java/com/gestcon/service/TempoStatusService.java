@@ -0,0 +1,182 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.TempoStatus;
+import com.gestcon.model.ProcessoContrato;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Calcula o tempo de permanência dos contratos em cada status (SLA) por responsável.
+ * A carga completa percorre processos_contrato uma única vez, em ordem de contrato e data,
+ * medindo o intervalo entre transições consecutivas; as durações vão para histogramas
+ * mescláveis (HistogramaDuracoes), um por status e responsável. O responsável por uma etapa
+ * é o usuário que registrou a transição que a encerrou (usuario_responsavel do processo), e não
+ * o responsável atual do contrato, para que reatribuir um contrato não mova seu histórico.
+ * O resultado fica em memória
+ * e é atualizado a cada nova transição após o commit; a carga completa roda na inicialização
+ * e depois diariamente, corrigindo transições gravadas por outros caminhos.
+ */
+@Service
+public class TempoStatusService {
+
+    private static final Logger logger = Logger.getLogger(TempoStatusService.class.getName());
+
+    private static final double SEGUNDOS_POR_HORA = 3600.0;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private record Entrada(String status, LocalDateTime desde) {
+    }
+
+    private record Transicao(Long contratoId, String usuario, String status, LocalDateTime dataAcao) {
+    }
+
+    /**
+     * Estado do cálculo: último status de cada contrato e histogramas por status e responsável.
+     */
+    private static final class Estado {
+
+        private final Map<Long, Entrada> entradas = new HashMap<>();
+
+        private final Map<String, Map<String, HistogramaDuracoes>> histogramas = new TreeMap<>();
+
+        /**
+         * Aplica uma transição. Transições anteriores ao estado atual do contrato (por exemplo,
+         * reaplicadas de "pendentes" depois que o streaming já leu outras mais novas) e
+         * repetições são ignoradas, para não regredir o status nem contar a duração duas vezes.
+         */
+        private void aplicar(Transicao transicao) {
+            Entrada nova = new Entrada(transicao.status(), transicao.dataAcao());
+            Entrada anterior = entradas.get(transicao.contratoId());
+            if (anterior != null && (anterior.equals(nova) || transicao.dataAcao().isBefore(anterior.desde()))) {
+                return;
+            }
+            entradas.put(transicao.contratoId(), nova);
+            if (anterior != null) {
+                histogramas.computeIfAbsent(anterior.status(), status -> new TreeMap<>())
+                    .computeIfAbsent(transicao.usuario() != null ? transicao.usuario() : "", r -> new HistogramaDuracoes())
+                    .registrar(Duration.between(anterior.desde(), transicao.dataAcao()).getSeconds());
+            }
+        }
+    }
+
+    private Estado estado = new Estado();
+
+    // Transições registradas durante um recálculo completo, reaplicadas sobre o novo estado
+    private List<Transicao> pendentes;
+
+    /**
+     * Refaz o cálculo percorrendo todo o histórico em streaming e substitui o resultado em memória.
+     */
+    @Scheduled(fixedDelayString = "${gestcon.workflow.sla.recalculo-ms:86400000}")
+    @Transactional(readOnly = true)
+    public void recalcular() {
+        synchronized (this) {
+            pendentes = new ArrayList<>();
+        }
+        Estado novo = new Estado();
+        long linhas = 0;
+        try (Stream<Object[]> historico = entityManager.createQuery(
+                "SELECT p.contrato.id, p.usuarioResponsavel, p.statusAtual, p.dataAcao FROM ProcessoContrato p " +
+                "ORDER BY p.contrato.id, p.dataAcao, p.id", Object[].class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, ExportacaoService.TAMANHO_FETCH)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            for (Object[] linha : (Iterable<Object[]>) historico::iterator) {
+                novo.aplicar(new Transicao((Long) linha[0], (String) linha[1], (String) linha[2], (LocalDateTime) linha[3]));
+                linhas++;
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendentes = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            pendentes.forEach(novo::aplicar);
+            pendentes = null;
+            estado = novo;
+        }
+        logger.info(String.format("Tempo em status recalculado: %d processos de %d contratos", linhas, novo.entradas.size()));
+    }
+
+    /**
+     * Acrescenta ao cálculo as transições recém-gravadas, após o commit da transação corrente.
+     */
+    public void registrar(Collection<ProcessoContrato> processos) {
+        List<Transicao> transicoes = new ArrayList<>(processos.size());
+        for (ProcessoContrato processo : processos) {
+            transicoes.add(new Transicao(processo.getContrato().getId(), processo.getUsuarioResponsavel(),
+                processo.getStatusAtual(), processo.getDataAcao()));
+        }
+        transicoes.sort(Comparator.comparing(Transicao::dataAcao));
+        aposCommit(() -> {
+            synchronized (this) {
+                transicoes.forEach(estado::aplicar);
+                if (pendentes != null) {
+                    pendentes.addAll(transicoes);
+                }
+            }
+        });
+    }
+
+    /**
+     * Tempo de permanência por status; se "porResponsavel", uma linha por status e responsável,
+     * senão os histogramas dos responsáveis são mesclados em uma linha por status.
+     */
+    public List<TempoStatus> obter(boolean porResponsavel) {
+        List<TempoStatus> resultado = new ArrayList<>();
+        synchronized (this) {
+            estado.histogramas.forEach((status, porUsuario) -> {
+                if (porResponsavel) {
+                    porUsuario.forEach((responsavel, histograma) -> resultado.add(resumir(status, responsavel, histograma)));
+                } else {
+                    HistogramaDuracoes total = new HistogramaDuracoes();
+                    porUsuario.values().forEach(total::mesclar);
+                    resultado.add(resumir(status, null, total));
+                }
+            });
+        }
+        return resultado;
+    }
+
+    private static TempoStatus resumir(String status, String responsavel, HistogramaDuracoes histograma) {
+        return new TempoStatus(status, responsavel, histograma.getTotal(),
+            histograma.getMedia() / SEGUNDOS_POR_HORA,
+            histograma.quantil(0.50) / SEGUNDOS_POR_HORA,
+            histograma.quantil(0.95) / SEGUNDOS_POR_HORA,
+            histograma.quantil(0.99) / SEGUNDOS_POR_HORA);
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.gestcon.service;
+
+import com.gestcon.model.Usuario;
+import com.gestcon.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Autentica pelos usuários cadastrados, com o email como login.
+ * O nome do principal é, portanto, o email do usuário — o mesmo valor gravado em
+ * usuario_destinatario das notificações (o responsável do contrato), o que permite
+ * ao stream SSE e às consultas de não lidas usar o principal diretamente.
+ * Substitui o usuário em memória padrão do Spring Boot.
+ */
+@Service
+public class UsuarioDetailsService implements UserDetailsService {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Override
+    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        Usuario usuario = usuarioRepository.findByEmail(email)
+            .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
+        return User.withUsername(usuario.getEmail())
+            .password(senhaCodificada(usuario.getSenha()))
+            .roles(usuario.getPapel())
+            .build();
+    }
+
+    // O cadastro ainda grava a senha sem identificador de codificação; essas são comparadas em texto puro
+    private static String senhaCodificada(String senha) {
+        return senha.startsWith("{") ? senha : "{noop}" + senha;
+    }
+}
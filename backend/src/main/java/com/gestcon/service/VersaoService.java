@@ -0,0 +1,70 @@
+package com.gestcon.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço que consulta apenas as colunas de versão de uma entidade e de suas associações,
+ * permitindo validar ETags sem carregar nem serializar a entidade.
+ */
+@Service
+@Transactional(readOnly = true)
+public class VersaoService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Retorna as versões da entidade e das associações informadas, na mesma ordem,
+     * ou vazio se a entidade não existir. Associações nulas têm versão nula.
+     */
+    public Optional<List<Long>> buscarVersoes(Class<?> entityClass, Object id, String... associacoes) {
+        Map<String, String> aliases = new LinkedHashMap<>();
+        StringBuilder joins = new StringBuilder();
+        for (String caminho : associacoes) {
+            int separador = caminho.lastIndexOf('.');
+            String origem = separador < 0 ? "e" : aliases.get(caminho.substring(0, separador));
+            String alias = "a" + aliases.size();
+            joins.append(" LEFT JOIN ").append(origem).append('.')
+                 .append(caminho.substring(separador + 1)).append(' ').append(alias);
+            aliases.put(caminho, alias);
+        }
+
+        List<String> colunas = new ArrayList<>();
+        colunas.add("e.versao");
+        aliases.values().forEach(alias -> colunas.add(alias + ".versao"));
+
+        String jpql = "SELECT " + String.join(", ", colunas)
+            + " FROM " + entityClass.getSimpleName() + " e" + joins + " WHERE e.id = :id";
+        List<?> resultado = entityManager.createQuery(jpql)
+            .setParameter("id", id)
+            .getResultList();
+        if (resultado.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Object linha = resultado.get(0);
+        Object[] valores = linha instanceof Object[] array ? array : new Object[] {linha};
+        List<Long> versoes = new ArrayList<>(valores.length);
+        for (Object valor : valores) {
+            versoes.add((Long) valor);
+        }
+        return Optional.of(versoes);
+    }
+
+    /**
+     * Monta a assinatura textual usada nas ETags a partir do ID e das versões.
+     */
+    public static String assinatura(Object id, List<Long> versoes) {
+        return id + "-" + versoes.stream().map(String::valueOf).collect(Collectors.joining("."));
+    }
+}
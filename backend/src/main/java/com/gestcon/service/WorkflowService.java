@@ -1,20 +1,60 @@
 package com.gestcon.service;
 
+import com.gestcon.dto.EstatisticaStatus;
+import com.gestcon.dto.Pagina;
+import com.gestcon.dto.ResultadoTransicao;
 import com.gestcon.model.Contrato;
 import com.gestcon.model.ProcessoContrato;
+import com.gestcon.model.StatusContrato;
+import com.gestcon.model.TransicaoWorkflow;
+import com.gestcon.repository.ContratoRepository;
+import com.gestcon.repository.PagamentoRepository;
 import com.gestcon.repository.ProcessoContratoRepository;
+import com.gestcon.repository.TransicaoWorkflowRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.logging.Logger;
+
+import static com.gestcon.model.StatusContrato.*;
 
 /**
  * Serviço responsável por gerenciar o workflow e mudanças de status dos contratos.
  * Implementa a lógica de negócio para transições de estado e auditoria.
+ * O grafo de transições vem da tabela workflow_transicoes (ou do grafo padrão, se ela
+ * estiver vazia) e é compilado em TabelaTransicoes, recarregada periodicamente.
  */
 @Service
 @Transactional
@@ -26,51 +66,163 @@ public class WorkflowService {
     @Autowired
     private NotificacaoService notificacaoService;
 
-    // Mapa de transições válidas de status
-    private static final Map<String, List<String>> TRANSICOES_VALIDAS = new HashMap<>();
-    
+    @Autowired
+    private TransicaoWorkflowRepository transicaoWorkflowRepository;
+
+    @Autowired
+    private ContratoRepository contratoRepository;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private ContadoresWorkflow contadores;
+
+    @Autowired
+    private EstatisticasProcessoService estatisticasProcesso;
+
+    @Autowired
+    private TempoStatusService tempoStatus;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${gestcon.lote.tamanho-chunk:500}")
+    private int tamanhoChunk;
+
+    @Value("${gestcon.workflow.dias-inadimplencia:30}")
+    private int diasInadimplencia;
+
+    @Value("${gestcon.workflow.max-tentativas-transicao:3}")
+    private int maxTentativasTransicao;
+
+    private static final Logger logger = Logger.getLogger(WorkflowService.class.getName());
+
+    // Chave do advisory lock que garante uma única execução de processarStatusAutomaticos no cluster
+    private static final long LOCK_STATUS_AUTOMATICOS = 7_150_018L;
+
+    private static final String USUARIO_SISTEMA = "SISTEMA";
+
+    private static final int TAMANHO_PAGINA_HISTORICO_MAXIMO = 200;
+
+    // Grafo padrão de transições válidas, usado enquanto workflow_transicoes estiver vazia
+    private static final Map<StatusContrato, Set<StatusContrato>> TRANSICOES_PADRAO = new EnumMap<>(StatusContrato.class);
+
     static {
-        TRANSICOES_VALIDAS.put("RASCUNHO", List.of("EM_ANALISE", "CANCELADO"));
-        TRANSICOES_VALIDAS.put("EM_ANALISE", List.of("APROVADO", "REJEITADO", "PENDENTE_DOCUMENTOS"));
-        TRANSICOES_VALIDAS.put("PENDENTE_DOCUMENTOS", List.of("EM_ANALISE", "CANCELADO"));
-        TRANSICOES_VALIDAS.put("APROVADO", List.of("ASSINADO", "REJEITADO"));
-        TRANSICOES_VALIDAS.put("ASSINADO", List.of("ATIVO", "CANCELADO"));
-        TRANSICOES_VALIDAS.put("ATIVO", List.of("EM_RENOVACAO", "SUSPENSO", "ENCERRADO"));
-        TRANSICOES_VALIDAS.put("EM_RENOVACAO", List.of("ATIVO", "ENCERRADO"));
-        TRANSICOES_VALIDAS.put("SUSPENSO", List.of("ATIVO", "ENCERRADO"));
-        TRANSICOES_VALIDAS.put("INADIMPLENTE", List.of("ATIVO", "ENCERRADO"));
-        TRANSICOES_VALIDAS.put("REJEITADO", List.of("RASCUNHO", "CANCELADO"));
-        TRANSICOES_VALIDAS.put("ENCERRADO", List.of()); // Estado final
-        TRANSICOES_VALIDAS.put("CANCELADO", List.of()); // Estado final
+        TRANSICOES_PADRAO.put(RASCUNHO, EnumSet.of(EM_ANALISE, CANCELADO));
+        TRANSICOES_PADRAO.put(EM_ANALISE, EnumSet.of(APROVADO, REJEITADO, PENDENTE_DOCUMENTOS));
+        TRANSICOES_PADRAO.put(PENDENTE_DOCUMENTOS, EnumSet.of(EM_ANALISE, CANCELADO));
+        TRANSICOES_PADRAO.put(APROVADO, EnumSet.of(ASSINADO, REJEITADO));
+        TRANSICOES_PADRAO.put(ASSINADO, EnumSet.of(ATIVO, CANCELADO));
+        TRANSICOES_PADRAO.put(ATIVO, EnumSet.of(EM_RENOVACAO, SUSPENSO, VENCIDO, INADIMPLENTE, ENCERRADO));
+        TRANSICOES_PADRAO.put(VENCIDO, EnumSet.of(EM_RENOVACAO, ENCERRADO));
+        TRANSICOES_PADRAO.put(EM_RENOVACAO, EnumSet.of(ATIVO, ENCERRADO));
+        TRANSICOES_PADRAO.put(SUSPENSO, EnumSet.of(ATIVO, ENCERRADO));
+        TRANSICOES_PADRAO.put(INADIMPLENTE, EnumSet.of(ATIVO, ENCERRADO));
+        TRANSICOES_PADRAO.put(REJEITADO, EnumSet.of(RASCUNHO, CANCELADO));
+        TRANSICOES_PADRAO.put(ENCERRADO, EnumSet.noneOf(StatusContrato.class)); // Estado final
+        TRANSICOES_PADRAO.put(CANCELADO, EnumSet.noneOf(StatusContrato.class)); // Estado final
+    }
+
+    private volatile TabelaTransicoes transicoes = TabelaTransicoes.compilar(TRANSICOES_PADRAO);
+
+    /**
+     * Recarrega o grafo de transições do banco e troca a tabela compilada se ele mudou.
+     * Executa na inicialização e depois periodicamente, permitindo alterar o workflow sem deploy.
+     */
+    @Scheduled(fixedDelayString = "${gestcon.workflow.recarga-transicoes-ms:60000}")
+    @Transactional(readOnly = true)
+    public TabelaTransicoes recarregarTransicoes() {
+        List<TransicaoWorkflow> cadastradas = transicaoWorkflowRepository.findByAtivoTrue();
+
+        Map<StatusContrato, Set<StatusContrato>> grafo = TRANSICOES_PADRAO;
+        if (!cadastradas.isEmpty()) {
+            grafo = new EnumMap<>(StatusContrato.class);
+            for (TransicaoWorkflow transicao : cadastradas) {
+                grafo.computeIfAbsent(transicao.getStatusOrigem(), origem -> EnumSet.noneOf(StatusContrato.class))
+                    .add(transicao.getStatusDestino());
+            }
+        }
+
+        TabelaTransicoes nova = TabelaTransicoes.compilar(grafo);
+        if (!nova.equals(transicoes)) {
+            transicoes = nova;
+            logger.info(String.format("Transições do workflow recarregadas (%s): %d transições",
+                cadastradas.isEmpty() ? "padrão" : "banco de dados",
+                grafo.values().stream().mapToInt(Set::size).sum()));
+        }
+        return transicoes;
+    }
+
+    /**
+     * Retorna a tabela de transições em uso.
+     */
+    public TabelaTransicoes getTransicoes() {
+        return transicoes;
     }
 
     /**
      * Altera o status de um contrato seguindo as regras de workflow.
+     * A gravação é um compare-and-set (UPDATE ... WHERE status = :esperado), sem lock de linha:
+     * se outra operação alterou o status antes, o status atual é relido e a transição é
+     * validada de novo, até "max-tentativas-transicao" vezes. Assim, duas aprovações
+     * simultâneas resultam em uma única transição e um único registro de histórico.
      */
-    public ProcessoContrato alterarStatus(Contrato contrato, String novoStatus, 
+    public ProcessoContrato alterarStatus(Contrato contrato, StatusContrato novoStatus,
                                         String acaoRealizada, String usuarioResponsavel, 
                                         String observacoes) {
         
-        String statusAtual = contrato.getStatus();
-        
-        // Validar se a transição é permitida
-        if (!isTransicaoValida(statusAtual, novoStatus)) {
-            throw new IllegalStateException(
-                String.format("Transição de '%s' para '%s' não é permitida", statusAtual, novoStatus)
-            );
+        StatusContrato statusAtual = contrato.getStatus();
+        for (int tentativa = 1; ; tentativa++) {
+            // Validar se a transição é permitida
+            if (!isTransicaoValida(statusAtual, novoStatus)) {
+                throw new IllegalStateException(
+                    String.format("Transição de '%s' para '%s' não é permitida", statusAtual, novoStatus)
+                );
+            }
+            if (contrato.getId() == null || !contratoRepository.atualizarStatus(
+                    List.of(contrato.getId()), statusAtual.name(), novoStatus.name()).isEmpty()) {
+                break;
+            }
+            if (tentativa >= maxTentativasTransicao) {
+                throw new OptimisticLockingFailureException(String.format(
+                    "Status do contrato %d alterado concorrentemente; tente novamente", contrato.getId()));
+            }
+            statusAtual = contratoRepository.findStatusById(contrato.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Contrato não encontrado"));
         }
 
         // Criar registro do processo
         ProcessoContrato processo = new ProcessoContrato(
-            contrato, statusAtual, novoStatus, acaoRealizada, usuarioResponsavel
+            contrato, statusAtual.name(), novoStatus.name(), acaoRealizada, usuarioResponsavel
         );
         processo.setObservacoes(observacoes);
 
-        // Atualizar status do contrato
-        contrato.setStatus(novoStatus);
-
-        // Salvar processo
+        // Salvar processo e apontar o contrato para ele (etapa atual)
         ProcessoContrato processoSalvo = processoContratoRepository.save(processo);
+        estatisticasProcesso.registrar(List.of(processoSalvo));
+        tempoStatus.registrar(List.of(processoSalvo));
+        if (contrato.getId() != null) {
+            contratoRepository.atualizarUltimoProcesso(contrato.getId(), processoSalvo.getId());
+        }
+
+        // Sincronizar a entidade com os UPDATEs (nova versão) em vez de gerar outro UPDATE
+        if (contrato.getId() != null && entityManager.contains(contrato)) {
+            entityManager.refresh(contrato);
+        } else {
+            contrato.setStatus(novoStatus);
+            contrato.setUltimoProcessoId(processoSalvo.getId());
+        }
+        contadores.registrarTransicao(statusAtual, novoStatus, contrato.getValorTotal());
 
         // Enviar notificações baseadas no novo status
         enviarNotificacoesPorStatus(contrato, novoStatus, usuarioResponsavel);
@@ -78,80 +230,358 @@ public class WorkflowService {
         return processoSalvo;
     }
 
+    /**
+     * Altera o status de vários contratos de uma vez. Todas as transições são validadas antes
+     * de qualquer escrita; as válidas são aplicadas em chunks, cada um em sua própria transação,
+     * com um UPDATE por status de origem (condicionado ao status lido, para não sobrescrever
+     * alterações concorrentes), inserção em lote do histórico e notificações pela outbox.
+     * Retorna o resultado de cada contrato, na ordem recebida.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ResultadoTransicao> alterarStatusEmLote(List<Long> contratoIds, StatusContrato novoStatus,
+                                                        String acaoRealizada, String usuarioResponsavel,
+                                                        String observacoes) {
+        List<Long> ids = contratoIds.stream().distinct().toList();
+        Map<Long, ResultadoTransicao> resultados = new LinkedHashMap<>();
+        Map<Long, StatusContrato> statusAtuais = new HashMap<>();
+        for (List<Long> chunk : dividir(ids)) {
+            for (Object[] linha : contratoRepository.findStatusByIdIn(chunk)) {
+                statusAtuais.put((Long) linha[0], (StatusContrato) linha[1]);
+            }
+        }
+
+        // Validar todas as transições antes de alterar qualquer contrato
+        List<Long> validos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            StatusContrato statusAtual = statusAtuais.get(id);
+            if (statusAtual == null) {
+                resultados.put(id, new ResultadoTransicao(id, null, novoStatus, "NAO_ENCONTRADO",
+                    "Contrato não encontrado"));
+            } else if (!isTransicaoValida(statusAtual, novoStatus)) {
+                resultados.put(id, new ResultadoTransicao(id, statusAtual, novoStatus, "TRANSICAO_INVALIDA",
+                    String.format("Transição de '%s' para '%s' não é permitida", statusAtual, novoStatus)));
+            } else {
+                resultados.put(id, null);
+                validos.add(id);
+            }
+        }
+
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        for (List<Long> chunk : dividir(validos)) {
+            try {
+                transacao.executeWithoutResult(status -> aplicarTransicoes(chunk, statusAtuais, novoStatus,
+                    acaoRealizada, usuarioResponsavel, observacoes, resultados));
+            } catch (RuntimeException e) {
+                logger.warning(String.format("Falha ao alterar status em lote (%d contratos): %s", chunk.size(), e.getMessage()));
+                chunk.forEach(id -> resultados.put(id, new ResultadoTransicao(id, statusAtuais.get(id), novoStatus,
+                    "ERRO", e.getMessage())));
+            }
+        }
+
+        logger.info(String.format("Transição em lote para %s: %d contratos solicitados, %d alterados",
+            novoStatus, ids.size(), resultados.values().stream().filter(r -> "ALTERADO".equals(r.resultado())).count()));
+        return List.copyOf(resultados.values());
+    }
+
+    /**
+     * Aplica as transições de um chunk já validado dentro da transação corrente.
+     */
+    private void aplicarTransicoes(List<Long> chunk, Map<Long, StatusContrato> statusAtuais, StatusContrato novoStatus,
+                                   String acaoRealizada, String usuarioResponsavel, String observacoes,
+                                   Map<Long, ResultadoTransicao> resultados) {
+        Map<StatusContrato, List<Long>> porStatus = new EnumMap<>(StatusContrato.class);
+        chunk.forEach(id -> porStatus.computeIfAbsent(statusAtuais.get(id), status -> new ArrayList<>()).add(id));
+
+        Set<Long> alterados = new HashSet<>();
+        porStatus.forEach((statusAtual, ids) ->
+            alterados.addAll(contratoRepository.atualizarStatus(ids, statusAtual.name(), novoStatus.name())));
+
+        // Contratos já carregados após o UPDATE, com o novo status e a nova versão
+        List<Contrato> contratos = alterados.isEmpty() ? List.of() : contratoRepository.findByIdIn(alterados);
+        List<ProcessoContrato> processos = new ArrayList<>(contratos.size());
+        for (Contrato contrato : contratos) {
+            ProcessoContrato processo = new ProcessoContrato(contrato, statusAtuais.get(contrato.getId()).name(),
+                novoStatus.name(), acaoRealizada, usuarioResponsavel);
+            processo.setObservacoes(observacoes);
+            processos.add(processo);
+            contadores.registrarTransicao(statusAtuais.get(contrato.getId()), novoStatus, contrato.getValorTotal());
+        }
+        processoContratoRepository.saveAll(processos);
+        estatisticasProcesso.registrar(processos);
+        tempoStatus.registrar(processos);
+        atualizarUltimosProcessos(processos);
+        contratos.forEach(contrato -> enviarNotificacoesPorStatus(contrato, novoStatus, usuarioResponsavel));
+        entityManager.flush();
+        entityManager.clear();
+
+        for (Long id : chunk) {
+            resultados.put(id, alterados.contains(id)
+                ? new ResultadoTransicao(id, statusAtuais.get(id), novoStatus, "ALTERADO", null)
+                : new ResultadoTransicao(id, statusAtuais.get(id), novoStatus, "CONFLITO",
+                    "Status alterado por outra operação"));
+        }
+    }
+
+    private List<List<Long>> dividir(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int inicio = 0; inicio < ids.size(); inicio += tamanhoChunk) {
+            chunks.add(ids.subList(inicio, Math.min(inicio + tamanhoChunk, ids.size())));
+        }
+        return chunks;
+    }
+
     /**
      * Verifica se uma transição de status é válida.
      */
-    public boolean isTransicaoValida(String statusAtual, String novoStatus) {
-        if (statusAtual == null || novoStatus == null) {
-            return false;
+    public boolean isTransicaoValida(StatusContrato statusAtual, StatusContrato novoStatus) {
+        return transicoes.isTransicaoValida(statusAtual, novoStatus);
+    }
+
+    /**
+     * Obtém o histórico de processos de um contrato, do mais recente para o mais antigo,
+     * paginado por cursor (keyset sobre data_acao e id), sem varredura por OFFSET.
+     */
+    @Transactional(readOnly = true)
+    public Pagina<ProcessoContrato> obterHistoricoContrato(Long contratoId, String cursor, int tamanho) {
+        int limite = Math.min(Math.max(tamanho, 1), TAMANHO_PAGINA_HISTORICO_MAXIMO);
+        PageRequest pagina = PageRequest.ofSize(limite + 1);
+
+        List<ProcessoContrato> processos;
+        if (cursor == null || cursor.isBlank()) {
+            processos = processoContratoRepository.findHistorico(contratoId, pagina);
+        } else {
+            PosicaoHistorico posicao = decodificarCursorHistorico(cursor);
+            processos = processoContratoRepository.findHistoricoAntesDe(contratoId, posicao.dataAcao(), posicao.id(), pagina);
         }
-        
-        List<String> transicoesPermitidas = TRANSICOES_VALIDAS.get(statusAtual);
-        return transicoesPermitidas != null && transicoesPermitidas.contains(novoStatus);
+
+        boolean temMais = processos.size() > limite;
+        List<ProcessoContrato> itens = temMais ? processos.subList(0, limite) : processos;
+        String proximoCursor = null;
+        if (temMais) {
+            ProcessoContrato ultimo = itens.get(itens.size() - 1);
+            proximoCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (ultimo.getDataAcao() + "|" + ultimo.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new Pagina<>(List.copyOf(itens), proximoCursor, temMais);
     }
 
     /**
-     * Obtém o histórico completo de processos de um contrato.
+     * Obtém o processo atual (último) de um contrato pelo ponteiro em contratos, sem percorrer o histórico.
      */
-    public List<ProcessoContrato> obterHistoricoContrato(Long contratoId) {
-        return processoContratoRepository.findByContratoIdOrderByDataAcaoDesc(contratoId);
+    @Transactional(readOnly = true)
+    public Optional<ProcessoContrato> obterProcessoAtual(Long contratoId) {
+        return contratoRepository.findById(contratoId)
+            .map(Contrato::getUltimoProcessoId)
+            .flatMap(processoContratoRepository::findById);
+    }
+
+    private record PosicaoHistorico(LocalDateTime dataAcao, Long id) {
+    }
+
+    private static PosicaoHistorico decodificarCursorHistorico(String cursor) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new PosicaoHistorico(LocalDateTime.parse(partes[0]), Long.valueOf(partes[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
     }
 
     /**
      * Obtém os próximos status possíveis para um contrato.
      */
-    public List<String> obterProximosStatusPossiveis(String statusAtual) {
-        return TRANSICOES_VALIDAS.getOrDefault(statusAtual, List.of());
+    public List<StatusContrato> obterProximosStatusPossiveis(StatusContrato statusAtual) {
+        return transicoes.getProximos(statusAtual);
     }
 
     /**
      * Verifica se um contrato está em estado final.
      */
-    public boolean isStatusFinal(String status) {
-        List<String> proximosStatus = TRANSICOES_VALIDAS.get(status);
-        return proximosStatus == null || proximosStatus.isEmpty();
+    public boolean isStatusFinal(StatusContrato status) {
+        return transicoes.isFinal(status);
     }
 
     /**
      * Envia notificações baseadas no novo status do contrato.
      */
-    private void enviarNotificacoesPorStatus(Contrato contrato, String novoStatus, String usuarioResponsavel) {
+    private void enviarNotificacoesPorStatus(Contrato contrato, StatusContrato novoStatus, String usuarioResponsavel) {
         switch (novoStatus) {
-            case "EM_ANALISE":
+            case EM_ANALISE:
                 notificacaoService.notificarAnaliseContrato(contrato, usuarioResponsavel);
                 break;
-            case "APROVADO":
+            case APROVADO:
                 notificacaoService.notificarAprovacaoContrato(contrato, usuarioResponsavel);
                 break;
-            case "REJEITADO":
+            case REJEITADO:
                 notificacaoService.notificarRejeicaoContrato(contrato, usuarioResponsavel);
                 break;
-            case "ATIVO":
+            case ATIVO:
                 notificacaoService.notificarContratoAtivo(contrato, usuarioResponsavel);
                 break;
-            case "VENCENDO":
+            case VENCENDO:
                 notificacaoService.notificarContratoVencendo(contrato, usuarioResponsavel);
                 break;
-            case "ENCERRADO":
+            case ENCERRADO:
                 notificacaoService.notificarContratoEncerrado(contrato, usuarioResponsavel);
                 break;
-            case "INADIMPLENTE":
+            case INADIMPLENTE:
                 notificacaoService.notificarContratoInadimplente(contrato, usuarioResponsavel);
                 break;
+            default:
+                break;
         }
     }
 
     /**
-     * Processa automaticamente contratos que precisam de mudança de status.
-     * Método para ser executado por scheduler.
+     * Processa automaticamente contratos e pagamentos que precisam de mudança de status:
+     * pagamentos pendentes vencidos passam a ATRASADO, contratos com pagamento atrasado há
+     * mais de "dias-inadimplencia" dias passam a INADIMPLENTE e contratos com vigência
+     * encerrada passam a VENCIDO. Cada chunk é um único UPDATE ... RETURNING em sua própria
+     * transação, e histórico, auditoria e notificações são gerados apenas para as linhas
+     * alteradas. Um advisory lock de sessão do PostgreSQL, mantido em uma conexão dedicada
+     * durante todo o processamento, impede execuções simultâneas em outros nós.
      */
-    @Transactional
+    @Scheduled(cron = "${gestcon.workflow.status-automaticos-cron:0 15 0 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processarStatusAutomaticos() {
-        // Implementar lógica para detectar contratos que precisam de mudança automática
-        // Ex: contratos vencendo, inadimplentes, etc.
-        
-        // Esta funcionalidade seria expandida com queries específicas
-        // e regras de negócio mais complexas
+        // Conexão obtida fora do gerenciamento de transações do Spring: o lock pertence à sessão
+        // e não pode ser liberado pelo commit dos chunks, que usam outras conexões do pool
+        try (Connection conexao = dataSource.getConnection()) {
+            if (!advisoryLock(conexao, "pg_try_advisory_lock")) {
+                logger.info("Processamento de status automáticos já em execução em outro nó");
+                return;
+            }
+            try {
+                executarStatusAutomaticos(LocalDate.now());
+            } finally {
+                liberarLockStatusAutomaticos(conexao);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Falha no lock de status automáticos", e);
+        }
+    }
+
+    private void executarStatusAutomaticos(LocalDate hoje) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        int atrasados = processarEmChunks(transacao, () -> marcarPagamentosAtrasados(hoje));
+        List<String> origensInadimplente = origens(INADIMPLENTE);
+        int inadimplentes = origensInadimplente.isEmpty() ? 0 : processarEmChunks(transacao, () ->
+            registrarAlteracoesAutomaticas(INADIMPLENTE, contratoRepository.marcarInadimplentes(
+                origensInadimplente, hoje.minusDays(diasInadimplencia), tamanhoChunk)));
+        List<String> origensVencido = origens(VENCIDO);
+        int vencidos = origensVencido.isEmpty() ? 0 : processarEmChunks(transacao, () ->
+            registrarAlteracoesAutomaticas(VENCIDO, contratoRepository.marcarVencidos(origensVencido, hoje, tamanhoChunk)));
+
+        logger.info(String.format("Status automáticos: %d pagamentos atrasados, %d contratos inadimplentes, %d contratos vencidos",
+            atrasados, inadimplentes, vencidos));
+    }
+
+    /**
+     * Executa chunks, cada um em sua transação, até um chunk vir incompleto.
+     * O usuário SISTEMA é repassado ao trigger de auditoria (fn_auditoria) pela
+     * configuração gestcon.usuario, válida só até o fim da transação do chunk.
+     * Retorna o total de linhas alteradas.
+     */
+    private int processarEmChunks(TransactionTemplate transacao, IntSupplier chunk) {
+        int total = 0;
+        int alterados;
+        do {
+            alterados = transacao.execute(status -> {
+                jdbcTemplate.queryForObject("SELECT set_config('gestcon.usuario', ?, true)", String.class, USUARIO_SISTEMA);
+                return chunk.getAsInt();
+            });
+            total += alterados;
+        } while (alterados >= tamanhoChunk);
+        return total;
+    }
+
+    private boolean advisoryLock(Connection conexao, String funcao) throws SQLException {
+        try (PreparedStatement ps = conexao.prepareStatement("SELECT " + funcao + "(?)")) {
+            ps.setLong(1, LOCK_STATUS_AUTOMATICOS);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * Libera o lock de sessão. Se a liberação falhar, a conexão é abortada para que o lock
+     * não volte ao pool preso a ela (o PostgreSQL o libera ao encerrar a sessão).
+     */
+    private void liberarLockStatusAutomaticos(Connection conexao) throws SQLException {
+        try {
+            advisoryLock(conexao, "pg_advisory_unlock");
+        } catch (SQLException e) {
+            logger.warning("Falha ao liberar o lock de status automáticos, descartando a conexão: " + e.getMessage());
+            conexao.abort(Runnable::run);
+        }
+    }
+
+    /**
+     * Marca um chunk de pagamentos como ATRASADO. A auditoria das linhas alteradas
+     * é gravada pelo trigger tg_auditoria_pagamentos.
+     */
+    private int marcarPagamentosAtrasados(LocalDate hoje) {
+        return pagamentoRepository.marcarAtrasados(hoje, tamanhoChunk).size();
+    }
+
+    /**
+     * Grava o histórico e envia as notificações dos contratos alterados por um chunk automático.
+     */
+    private int registrarAlteracoesAutomaticas(StatusContrato novoStatus, List<Object[]> alterados) {
+        if (alterados.isEmpty()) {
+            return 0;
+        }
+        Map<Long, String> statusAnteriores = new HashMap<>();
+        alterados.forEach(linha -> statusAnteriores.put(((Number) linha[0]).longValue(), (String) linha[1]));
+
+        List<Contrato> contratos = contratoRepository.findByIdIn(statusAnteriores.keySet());
+        List<ProcessoContrato> processos = new ArrayList<>(contratos.size());
+        for (Contrato contrato : contratos) {
+            ProcessoContrato processo = new ProcessoContrato(contrato, statusAnteriores.get(contrato.getId()),
+                novoStatus.name(), "Atualização automática de status", USUARIO_SISTEMA);
+            processos.add(processo);
+            contadores.registrarTransicao(StatusContrato.valueOf(statusAnteriores.get(contrato.getId())),
+                novoStatus, contrato.getValorTotal());
+        }
+        processoContratoRepository.saveAll(processos);
+        estatisticasProcesso.registrar(processos);
+        tempoStatus.registrar(processos);
+        atualizarUltimosProcessos(processos);
+        contratos.forEach(contrato -> enviarNotificacoesPorStatus(contrato, novoStatus, USUARIO_SISTEMA));
+        entityManager.flush();
+        entityManager.clear();
+        return alterados.size();
+    }
+
+    /**
+     * Atualiza o ponteiro para o último processo com um UPDATE nativo, como em alterarStatus.
+     * Alterar o campo nos contratos gerenciados faria o Hibernate gerar outro UPDATE por
+     * contrato, incrementando a versão pela segunda vez na mesma transição.
+     */
+    private void atualizarUltimosProcessos(List<ProcessoContrato> processos) {
+        if (processos.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        contratoRepository.atualizarUltimosProcessos(processos.stream().map(ProcessoContrato::getId).toList());
+    }
+
+    /**
+     * Status a partir dos quais a transição automática para o destino é permitida pelo workflow.
+     */
+    private List<String> origens(StatusContrato destino) {
+        List<String> origens = new ArrayList<>();
+        for (StatusContrato status : StatusContrato.values()) {
+            if (isTransicaoValida(status, destino)) {
+                origens.add(status.name());
+            }
+        }
+        return origens;
     }
 
     /**
@@ -166,14 +596,11 @@ public class WorkflowService {
     }
 
     /**
-     * Obtém estatísticas de workflow para dashboard.
+     * Obtém estatísticas de workflow para dashboard: quantidade e valor total de contratos
+     * por status, lidos dos contadores em memória (sem acessar o banco).
      */
-    public Map<String, Long> obterEstatisticasWorkflow() {
-        Map<String, Long> estatisticas = new HashMap<>();
-        
-        // Implementar queries para contar contratos por status
-        // Esta seria uma funcionalidade expandida com queries específicas
-        
-        return estatisticas;
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<EstatisticaStatus> obterEstatisticasWorkflow() {
+        return contadores.obter();
     }
 }
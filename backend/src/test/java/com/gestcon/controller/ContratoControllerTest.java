@@ -1,19 +1,35 @@
 package com.gestcon.controller;
 
 import com.gestcon.model.Contrato;
+import com.gestcon.model.Empresa;
+import com.gestcon.model.StatusContrato;
 import com.gestcon.repository.ContratoRepository;
+import com.gestcon.service.ExportacaoService;
+import com.gestcon.service.LoteService;
+import com.gestcon.service.VersaoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,6 +43,15 @@ public class ContratoControllerTest {
     @MockBean
     private ContratoRepository contratoRepository;
 
+    @MockBean
+    private ExportacaoService exportacaoService;
+
+    @MockBean
+    private LoteService loteService;
+
+    @MockBean
+    private VersaoService versaoService;
+
     private Contrato contrato;
 
     @BeforeEach
@@ -35,16 +60,27 @@ public class ContratoControllerTest {
         contrato.setId(1L);
         contrato.setNumeroContrato("12345");
         contrato.setObjeto("Objeto do contrato");
+        contrato.setVersao(3L);
     }
 
     @Test
     public void testGetAllContratos() throws Exception {
-        when(contratoRepository.findAll()).thenReturn(Collections.singletonList(contrato));
+        Window<Contrato> janela = Window.from(Collections.singletonList(contrato),
+                i -> ScrollPosition.forward(Map.of("id", contrato.getId())), true);
+        when(contratoRepository.findBy(any(Example.class), any(Function.class))).thenReturn(janela);
 
-        mockMvc.perform(get("/api/contratos"))
+        mockMvc.perform(get("/api/contratos").param("tamanho", "1"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(contrato.getId()))
-                .andExpect(jsonPath("$[0].numeroContrato").value(contrato.getNumeroContrato()));
+                .andExpect(jsonPath("$.itens[0].id").value(contrato.getId()))
+                .andExpect(jsonPath("$.itens[0].numeroContrato").value(contrato.getNumeroContrato()))
+                .andExpect(jsonPath("$.temMais").value(true))
+                .andExpect(jsonPath("$.proximoCursor").isNotEmpty());
+    }
+
+    @Test
+    public void testGetAllContratosOrdenacaoInvalida() throws Exception {
+        mockMvc.perform(get("/api/contratos").param("ordenarPor", "empresa"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -54,7 +90,19 @@ public class ContratoControllerTest {
         mockMvc.perform(get("/api/contratos/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(contrato.getId()))
-                .andExpect(jsonPath("$.numeroContrato").value(contrato.getNumeroContrato()));
+                .andExpect(jsonPath("$.numeroContrato").value(contrato.getNumeroContrato()))
+                .andExpect(header().string("ETag", "\"1-3.null\""));
+    }
+
+    @Test
+    public void testGetContratoByIdNaoModificado() throws Exception {
+        when(versaoService.buscarVersoes(eq(Contrato.class), eq(1L), any(String[].class)))
+                .thenReturn(Optional.of(List.of(3L, 7L)));
+
+        mockMvc.perform(get("/api/contratos/1").header("If-None-Match", "\"1-3.7\""))
+                .andExpect(status().isNotModified());
+
+        verify(contratoRepository, never()).findById(1L);
     }
 
     @Test
@@ -84,6 +132,52 @@ public class ContratoControllerTest {
                 .andExpect(jsonPath("$.objeto").value("Objeto atualizado"));
     }
 
+    @Test
+    public void testPatchContrato() throws Exception {
+        when(contratoRepository.findById(1L)).thenReturn(Optional.of(contrato));
+        when(contratoRepository.saveAndFlush(any(Contrato.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        contrato.setEmpresa(new Empresa());
+        contrato.setVigenciaInicio(LocalDate.of(2024, 1, 1));
+        contrato.setVigenciaFim(LocalDate.of(2025, 12, 31));
+        contrato.setValorTotal(new BigDecimal("1000.00"));
+        contrato.setStatus(StatusContrato.ATIVO);
+        contrato.setResponsavel("gestor@gestcon.gov.br");
+
+        mockMvc.perform(patch("/api/contratos/1")
+                .contentType("application/merge-patch+json")
+                .content("{\"status\":\"SUSPENSO\",\"versao\":3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUSPENSO"))
+                .andExpect(jsonPath("$.objeto").value("Objeto do contrato"));
+    }
+
+    @Test
+    public void testPatchContratoVersaoDesatualizada() throws Exception {
+        when(contratoRepository.findById(1L)).thenReturn(Optional.of(contrato));
+
+        mockMvc.perform(patch("/api/contratos/1")
+                .contentType("application/merge-patch+json")
+                .header("If-Match", "\"1-2.null\"")
+                .content("{\"status\":\"SUSPENSO\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(contratoRepository, never()).saveAndFlush(any(Contrato.class));
+    }
+
+    @Test
+    public void testPatchContratoIfMatchFracoRejeitado() throws Exception {
+        when(contratoRepository.findById(1L)).thenReturn(Optional.of(contrato));
+
+        // If-Match exige comparação forte: a ETag atual marcada como fraca não corresponde
+        mockMvc.perform(patch("/api/contratos/1")
+                .contentType("application/merge-patch+json")
+                .header("If-Match", "W/\"1-3.null\"")
+                .content("{\"status\":\"SUSPENSO\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(contratoRepository, never()).saveAndFlush(any(Contrato.class));
+    }
+
     @Test
     public void testDeleteContrato() throws Exception {
         when(contratoRepository.findById(1L)).thenReturn(Optional.of(contrato));
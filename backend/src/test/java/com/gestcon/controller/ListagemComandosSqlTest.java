@@ -0,0 +1,125 @@
+package com.gestcon.controller;
+
+import com.gestcon.model.Contrato;
+import com.gestcon.model.Empresa;
+import com.gestcon.model.NotaFiscal;
+import com.gestcon.model.Pagamento;
+import com.gestcon.model.StatusContrato;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conta os comandos SQL de cada endpoint de listagem e de exportação, da requisição à
+ * serialização: as associações de getAssociacoesListagem() devem vir no mesmo SELECT.
+ * Uma regressão para N+1 faz o número de comandos crescer com o número de linhas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    // Jobs agendados fora da janela medida: o contador de comandos é global
+    "gestcon.notificacao.outbox.intervalo-ms=3600000",
+    "gestcon.workflow.recarga-transicoes-ms=3600000",
+    "gestcon.workflow.status-automaticos-cron=-",
+    "gestcon.workflow.consolidacao.cron=-"
+})
+@Transactional
+@WithMockUser
+public class ListagemComandosSqlTest {
+
+    private static final int QUANTIDADE = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        for (int i = 0; i < QUANTIDADE; i++) {
+            Empresa empresa = new Empresa();
+            empresa.setNome("Empresa " + i);
+            empresa.setCnpj("0000000000000" + i);
+            entityManager.persist(empresa);
+
+            Contrato contrato = new Contrato();
+            contrato.setNumeroContrato("CT-" + i);
+            contrato.setEmpresa(empresa);
+            contrato.setObjeto("Objeto " + i);
+            contrato.setVigenciaInicio(LocalDate.now().minusYears(1));
+            contrato.setVigenciaFim(LocalDate.now().plusYears(1));
+            contrato.setValorTotal(new BigDecimal("1000.00"));
+            contrato.setStatus(StatusContrato.ATIVO);
+            contrato.setResponsavel("gestor@gestcon.gov.br");
+            entityManager.persist(contrato);
+
+            Pagamento pagamento = new Pagamento(contrato, "1/1", new BigDecimal("1000.00"),
+                LocalDate.now().plusDays(3), "gestor");
+            entityManager.persist(pagamento);
+
+            NotaFiscal notaFiscal = new NotaFiscal(contrato, "NF-" + i, "1",
+                new BigDecimal("1000.00"), LocalDate.now(), "gestor");
+            notaFiscal.setPagamento(pagamento);
+            entityManager.persist(notaFiscal);
+        }
+        entityManager.flush();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/contratos", "/api/pagamentos", "/api/notas-fiscais", "/api/empresas"})
+    public void testListagemUmaConsulta(String endpoint) throws Exception {
+        long umaLinha = comandos(get(endpoint).param("tamanho", "1"));
+        long paginaCompleta = comandos(get(endpoint).param("tamanho", String.valueOf(QUANTIDADE)));
+
+        assertEquals(1, paginaCompleta);
+        assertEquals(umaLinha, paginaCompleta);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/contratos", "/api/pagamentos", "/api/notas-fiscais", "/api/empresas"})
+    public void testExportacaoUmaConsulta(String endpoint) throws Exception {
+        assertEquals(1, comandos(get(endpoint + "/exportar").param("formato", "NDJSON")));
+        assertEquals(1, comandos(get(endpoint + "/exportar").param("formato", "CSV")));
+    }
+
+    /**
+     * Executa a requisição com o contexto de persistência vazio e retorna os comandos SQL preparados.
+     */
+    private long comandos(RequestBuilder requisicao) throws Exception {
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        mockMvc.perform(requisicao).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
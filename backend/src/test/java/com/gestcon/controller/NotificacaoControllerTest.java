@@ -0,0 +1,73 @@
+package com.gestcon.controller;
+
+import com.gestcon.model.Notificacao;
+import com.gestcon.repository.NotificacaoRepository;
+import com.gestcon.service.NotificacaoBroadcaster;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Confere que as notificações são sempre as do usuário autenticado.
+ */
+@WebMvcTest(NotificacaoController.class)
+@WithMockUser(username = NotificacaoControllerTest.GESTOR)
+public class NotificacaoControllerTest {
+
+    static final String GESTOR = "gestor@gestcon.gov.br";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private NotificacaoRepository notificacaoRepository;
+
+    @MockBean
+    private NotificacaoBroadcaster broadcaster;
+
+    @Test
+    public void testNaoLidasDoPrincipalIgnoraParametro() throws Exception {
+        Notificacao notificacao = new Notificacao(1L, GESTOR, "ATIVO", "Contrato Ativado", "");
+        notificacao.setId(10L);
+        when(notificacaoRepository.findByUsuarioDestinatarioAndLidaFalseOrderByDataCriacaoDesc(GESTOR))
+            .thenReturn(List.of(notificacao));
+
+        mockMvc.perform(get("/api/notificacoes/nao-lidas").param("usuario", "outro@gestcon.gov.br"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].usuarioDestinatario").value(GESTOR));
+    }
+
+    @Test
+    public void testMarcarLidaDoProprioUsuario() throws Exception {
+        Notificacao notificacao = new Notificacao(1L, GESTOR, "ATIVO", "Contrato Ativado", "");
+        when(notificacaoRepository.findById(10L)).thenReturn(Optional.of(notificacao));
+
+        mockMvc.perform(put("/api/notificacoes/10/lida").with(csrf()))
+            .andExpect(status().isNoContent());
+        assertTrue(notificacao.getLida());
+    }
+
+    @Test
+    public void testMarcarLidaDeOutroUsuarioRetorna404() throws Exception {
+        Notificacao notificacao = new Notificacao(1L, "outro@gestcon.gov.br", "ATIVO", "Contrato Ativado", "");
+        when(notificacaoRepository.findById(10L)).thenReturn(Optional.of(notificacao));
+
+        mockMvc.perform(put("/api/notificacoes/10/lida").with(csrf()))
+            .andExpect(status().isNotFound());
+        assertFalse(notificacao.getLida());
+    }
+}
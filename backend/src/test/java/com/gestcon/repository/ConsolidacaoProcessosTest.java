@@ -0,0 +1,102 @@
+package com.gestcon.repository;
+
+import com.gestcon.model.Contrato;
+import com.gestcon.model.Empresa;
+import com.gestcon.model.ProcessoContrato;
+import com.gestcon.model.ProcessoContratoDiario;
+import com.gestcon.model.StatusContrato;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Confere a consolidação diária de processos contra o agrupamento das linhas brutas.
+ */
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+public class ConsolidacaoProcessosTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 30);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProcessoContratoRepository processoContratoRepository;
+
+    @Autowired
+    private ProcessoContratoDiarioRepository diarioRepository;
+
+    @BeforeEach
+    public void setup() {
+        Empresa empresa = new Empresa();
+        empresa.setNome("Empresa");
+        empresa.setCnpj("00000000000001");
+        entityManager.persist(empresa);
+
+        Contrato contrato = new Contrato();
+        contrato.setNumeroContrato("CT-1");
+        contrato.setEmpresa(empresa);
+        contrato.setObjeto("Objeto");
+        contrato.setVigenciaInicio(INICIO);
+        contrato.setVigenciaFim(INICIO.plusYears(1));
+        contrato.setValorTotal(new BigDecimal("1000.00"));
+        contrato.setStatus(StatusContrato.ATIVO);
+        contrato.setResponsavel("gestor@gestcon.gov.br");
+        entityManager.persist(contrato);
+
+        // Processos espalhados por 5 dias, com status e ações diferentes e horários nos limites do dia
+        String[] status = {"EM_ANALISE", "APROVADO", "ATIVO"};
+        for (int i = 0; i < 40; i++) {
+            ProcessoContrato processo = new ProcessoContrato(contrato, "RASCUNHO", status[i % 3],
+                i % 2 == 0 ? "Aprovação" : "Revisão", "gestor");
+            LocalDate dia = INICIO.plusDays(i % 5);
+            processo.setDataAcao(i % 4 == 0 ? dia.atStartOfDay() : dia.atTime(LocalTime.MAX.withNano(0)));
+            entityManager.persist(processo);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testConsolidacaoIgualAoAgrupamentoBruto() {
+        LocalDate fim = INICIO.plusDays(4);
+        diarioRepository.excluirPeriodo(INICIO, fim);
+        diarioRepository.recalcular(INICIO.atStartOfDay(), fim.plusDays(1).atStartOfDay());
+
+        List<Object[]> bruto = processoContratoRepository.findEstatisticasPorPeriodo(
+            INICIO.plusDays(1).atStartOfDay(), INICIO.plusDays(3).atTime(LocalTime.MAX));
+        List<Object[]> consolidado = diarioRepository.somarPorDia(INICIO.plusDays(1), INICIO.plusDays(3));
+
+        assertEquals(3, consolidado.size());
+        assertEquals(bruto.size(), consolidado.size());
+        for (int i = 0; i < bruto.size(); i++) {
+            assertArrayEquals(new Object[] {bruto.get(i)[0], ((Number) bruto.get(i)[1]).longValue()},
+                new Object[] {consolidado.get(i)[0], ((Number) consolidado.get(i)[1]).longValue()});
+        }
+    }
+
+    @Test
+    public void testReconstrucaoSubstituiConsolidacaoDivergente() {
+        diarioRepository.save(new ProcessoContratoDiario(INICIO, "ATIVO", "Aprovação", 999L));
+        entityManager.flush();
+
+        diarioRepository.excluirPeriodo(INICIO, INICIO);
+        diarioRepository.recalcular(INICIO.atStartOfDay(), INICIO.plusDays(1).atStartOfDay());
+
+        long bruto = ((Number) processoContratoRepository.findEstatisticasPorPeriodo(
+            INICIO.atStartOfDay(), INICIO.atTime(LocalTime.MAX)).get(0)[1]).longValue();
+        assertEquals(bruto, ((Number) diarioRepository.somarPorDia(INICIO, INICIO).get(0)[1]).longValue());
+    }
+}
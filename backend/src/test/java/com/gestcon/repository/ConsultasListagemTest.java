@@ -0,0 +1,135 @@
+package com.gestcon.repository;
+
+import com.gestcon.model.Contrato;
+import com.gestcon.model.Empresa;
+import com.gestcon.model.NotaFiscal;
+import com.gestcon.model.Pagamento;
+import com.gestcon.model.ProcessoContrato;
+import com.gestcon.model.StatusContrato;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Garante que as consultas de listagem carregam as associações em um único SELECT.
+ * Uma regressão para N+1 faz o número de comandos SQL crescer com o número de linhas.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class ConsultasListagemTest {
+
+    private static final int QUANTIDADE = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NotaFiscalRepository notaFiscalRepository;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private ProcessoContratoRepository processoContratoRepository;
+
+    @Autowired
+    private ContratoRepository contratoRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        for (int i = 0; i < QUANTIDADE; i++) {
+            Empresa empresa = new Empresa();
+            empresa.setNome("Empresa " + i);
+            empresa.setCnpj("0000000000000" + i);
+            entityManager.persist(empresa);
+
+            Contrato contrato = new Contrato();
+            contrato.setNumeroContrato("CT-" + i);
+            contrato.setEmpresa(empresa);
+            contrato.setObjeto("Objeto " + i);
+            contrato.setVigenciaInicio(LocalDate.now().minusYears(1));
+            contrato.setVigenciaFim(LocalDate.now().minusDays(1));
+            contrato.setValorTotal(new BigDecimal("1000.00"));
+            contrato.setStatus(StatusContrato.ATIVO);
+            contrato.setResponsavel("gestor@gestcon.gov.br");
+            entityManager.persist(contrato);
+
+            Pagamento pagamento = new Pagamento(contrato, "1/1", new BigDecimal("1000.00"),
+                LocalDate.now().plusDays(3), "gestor");
+            entityManager.persist(pagamento);
+
+            NotaFiscal notaFiscal = new NotaFiscal(contrato, "NF-" + i, "1",
+                new BigDecimal("1000.00"), LocalDate.now(), "gestor");
+            notaFiscal.setPagamento(pagamento);
+            entityManager.persist(notaFiscal);
+
+            entityManager.persist(new ProcessoContrato(contrato, "APROVADO", "ATIVO", "Ativação", "gestor"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testListagemNotasFiscaisUmaConsulta() {
+        List<NotaFiscal> notas = notaFiscalRepository.findByStatus("PENDENTE");
+
+        assertEquals(QUANTIDADE, notas.size());
+        notas.forEach(nota -> {
+            nota.getContrato().getEmpresa().getNome();
+            nota.getPagamento().getContrato().getNumeroContrato();
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testListagemPagamentosUmaConsulta() {
+        List<Pagamento> pagamentos = pagamentoRepository.findPagamentosVencimentoProximo(
+            LocalDate.now(), LocalDate.now().plusDays(7));
+
+        assertEquals(QUANTIDADE, pagamentos.size());
+        pagamentos.forEach(pagamento -> pagamento.getContrato().getEmpresa().getNome());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testListagemProcessosUmaConsulta() {
+        List<ProcessoContrato> processos = processoContratoRepository.findByStatusAtual("ATIVO");
+
+        assertEquals(QUANTIDADE, processos.size());
+        processos.forEach(processo -> processo.getContrato().getEmpresa().getNome());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testContratosVencidosUmaConsulta() {
+        List<Contrato> vencidos = contratoRepository.findContratosVencidos(LocalDate.now());
+
+        assertFalse(vencidos.isEmpty());
+        vencidos.forEach(vencido -> vencido.getEmpresa().getNome());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,122 @@
+package com.gestcon.repository;
+
+import com.gestcon.model.Contrato;
+import com.gestcon.model.Empresa;
+import com.gestcon.model.ProcessoContrato;
+import com.gestcon.model.StatusContrato;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Executa o bloco de sequências de database/scripts_melhorias.sql sobre uma tabela
+ * ainda em BIGSERIAL e confere que INSERTs em SQL e pela aplicação não colidem.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+public class MigracaoSequenciasTest {
+
+    private static final Path SCRIPT = Path.of("..", "database", "scripts_melhorias.sql");
+
+    private static final String INSERT_SQL = "INSERT INTO processos_contrato (contrato_id, status_anterior, "
+        + "status_atual, acao_realizada, data_acao, usuario_responsavel, ativo, versao) "
+        + "VALUES (?, 'RASCUNHO', 'EM_ANALISE', 'Carga', now(), 'SISTEMA', true, 0)";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Contrato contrato;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        Empresa empresa = new Empresa();
+        empresa.setNome("Empresa");
+        empresa.setCnpj("00000000000001");
+        entityManager.persist(empresa);
+
+        contrato = new Contrato();
+        contrato.setNumeroContrato("CT-1");
+        contrato.setEmpresa(empresa);
+        contrato.setObjeto("Objeto");
+        contrato.setVigenciaInicio(LocalDate.of(2024, 1, 1));
+        contrato.setVigenciaFim(LocalDate.of(2025, 1, 1));
+        contrato.setValorTotal(new BigDecimal("1000.00"));
+        contrato.setStatus(StatusContrato.ATIVO);
+        contrato.setResponsavel("gestor@gestcon.gov.br");
+        entityManager.persist(contrato);
+        entityManager.flush();
+
+        // Estado anterior à migração: id preenchido pela sequência do BIGSERIAL
+        jdbcTemplate.execute("CREATE SEQUENCE processos_contrato_id_seq OWNED BY processos_contrato.id");
+        jdbcTemplate.execute("ALTER TABLE processos_contrato ALTER COLUMN id "
+            + "SET DEFAULT nextval('processos_contrato_id_seq')");
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update(INSERT_SQL, contrato.getId());
+        }
+
+        jdbcTemplate.execute(blocoSequencias());
+    }
+
+    @Test
+    public void testMigracaoTrocaDefaultERemoveSequenciaAntiga() {
+        assertEquals("public.processos_contrato_seq", jdbcTemplate.queryForObject(
+            "SELECT pg_get_serial_sequence('processos_contrato', 'id')", String.class));
+        assertNull(jdbcTemplate.queryForObject(
+            "SELECT to_regclass('processos_contrato_id_seq')::text", String.class));
+    }
+
+    @Test
+    public void testInsertsEmSqlEPelaAplicacaoNaoColidem() {
+        for (int i = 0; i < 60; i++) {
+            jdbcTemplate.update(INSERT_SQL, contrato.getId());
+        }
+        for (int i = 0; i < 120; i++) {
+            entityManager.persist(new ProcessoContrato(contrato, "RASCUNHO", "EM_ANALISE", "Aplicação", "gestor"));
+            if (i % 40 == 39) {
+                // Intercala cargas em SQL com os blocos já reservados pelo Hibernate
+                entityManager.flush();
+                jdbcTemplate.update(INSERT_SQL, contrato.getId());
+            }
+        }
+        entityManager.flush();
+
+        assertEquals(186L, jdbcTemplate.queryForObject(
+            "SELECT COUNT(DISTINCT id) FROM processos_contrato", Long.class));
+    }
+
+    /** Trecho do script entre a função de ajuste e a sua primeira execução. */
+    private static String blocoSequencias() throws IOException {
+        String script = Files.readString(SCRIPT, StandardCharsets.UTF_8);
+        String fim = "SELECT fn_ajustar_sequencias();";
+        int inicio = script.indexOf("CREATE OR REPLACE FUNCTION fn_ajustar_sequencias");
+        return script.substring(inicio, script.indexOf(fim, inicio) + fim.length());
+    }
+}
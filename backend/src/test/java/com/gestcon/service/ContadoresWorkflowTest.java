@@ -0,0 +1,94 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.EstatisticaStatus;
+import com.gestcon.model.StatusContrato;
+import com.gestcon.repository.ContratoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.gestcon.model.StatusContrato.ATIVO;
+import static com.gestcon.model.StatusContrato.ENCERRADO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testa os contadores em memória do dashboard do workflow.
+ */
+public class ContadoresWorkflowTest {
+
+    private ContratoRepository contratoRepository;
+
+    private ContadoresWorkflow contadores;
+
+    @BeforeEach
+    public void setup() {
+        contratoRepository = mock(ContratoRepository.class);
+        contadores = new ContadoresWorkflow();
+        ReflectionTestUtils.setField(contadores, "contratoRepository", contratoRepository);
+    }
+
+    @Test
+    public void testReconciliaEAtualizaPorTransicao() {
+        when(contratoRepository.contarPorStatus()).thenReturn(List.<Object[]>of(
+            new Object[] {ATIVO, 3L, new BigDecimal("3000.50")}));
+        contadores.reconciliar();
+
+        contadores.registrarTransicao(ATIVO, ENCERRADO, new BigDecimal("1000.25"));
+        contadores.registrarInclusao(ATIVO, new BigDecimal("10"));
+
+        assertEquals(new EstatisticaStatus(ATIVO, 3, new BigDecimal("2010.25")), estatistica(ATIVO));
+        assertEquals(new EstatisticaStatus(ENCERRADO, 1, new BigDecimal("1000.25")), estatistica(ENCERRADO));
+    }
+
+    @Test
+    public void testReconciliacaoCorrigeDivergencias() {
+        contadores.registrarInclusao(ATIVO, new BigDecimal("500.00"));
+        when(contratoRepository.contarPorStatus()).thenReturn(List.of());
+
+        contadores.reconciliar();
+
+        assertEquals(0, estatistica(ATIVO).quantidade());
+        assertEquals(StatusContrato.values().length, contadores.obter().size());
+    }
+
+    @Test
+    public void testReconciliacaoEsperaDeltaDeTransacaoEmCommit() throws Exception {
+        // O banco já reflete a transição; o delta só é aplicado em afterCommit
+        when(contratoRepository.contarPorStatus()).thenReturn(List.<Object[]>of(
+            new Object[] {ENCERRADO, 1L, new BigDecimal("100.00")}));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            contadores.registrarTransicao(ATIVO, ENCERRADO, new BigDecimal("100.00"));
+            List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+            sincronizacoes.forEach(sincronizacao -> sincronizacao.beforeCommit(false));
+
+            CompletableFuture<Void> reconciliacao = CompletableFuture.runAsync(contadores::reconciliar);
+            assertThrows(TimeoutException.class, () -> reconciliacao.get(200, TimeUnit.MILLISECONDS));
+
+            sincronizacoes.forEach(TransactionSynchronization::afterCommit);
+            sincronizacoes.forEach(sincronizacao ->
+                sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            reconciliacao.get(5, TimeUnit.SECONDS);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(new EstatisticaStatus(ENCERRADO, 1, new BigDecimal("100.00")), estatistica(ENCERRADO));
+        assertEquals(0, estatistica(ATIVO).quantidade());
+    }
+
+    private EstatisticaStatus estatistica(StatusContrato status) {
+        return contadores.obter().get(status.ordinal());
+    }
+}
@@ -0,0 +1,106 @@
+package com.gestcon.service;
+
+import com.gestcon.model.Notificacao;
+import com.gestcon.repository.NotificacaoRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mede a vazão da drenagem da outbox (processarPendentes) contra o GreenMail, com a reserva
+ * de pendentes simulada, para cada número de conexões SMTP simultâneas.
+ * Executar com: mvn test -Dtest=EnvioEmailBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class EnvioEmailBenchmarkTest {
+
+    private static final int QUANTIDADE = 500;
+
+    private static final int TAMANHO_LOTE = 50;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    public void testMensagensPorSegundo() throws Exception {
+        int recebidas = 0;
+        StringBuilder resultado = new StringBuilder();
+        for (int concorrencia : new int[] {1, 2, 4}) {
+            List<Notificacao> notificacoes = new ArrayList<>();
+            NotificacaoDispatcher dispatcher = criarDispatcher(concorrencia, notificacoes);
+            try {
+                long inicio = System.nanoTime();
+                dispatcher.processarPendentes();
+                double porSegundo = QUANTIDADE / ((System.nanoTime() - inicio) / 1e9);
+                resultado.append(String.format("%d conexão(ões): %.0f msg/s | ", concorrencia, porSegundo));
+            } finally {
+                dispatcher.encerrar();
+            }
+            recebidas += QUANTIDADE;
+            assertTrue(notificacoes.stream().allMatch(n -> "ENVIADO".equals(n.getStatusEnvio())));
+            assertEquals(recebidas, greenMail.getReceivedMessages().length);
+        }
+        System.out.println(resultado);
+    }
+
+    /**
+     * Dispatcher com a outbox simulada: cada reserva devolve um lote de TAMANHO_LOTE
+     * notificações até completar QUANTIDADE, e a seguinte volta vazia.
+     */
+    private NotificacaoDispatcher criarDispatcher(int concorrencia, List<Notificacao> notificacoes) {
+        NotificacaoRepository notificacaoRepository = mock(NotificacaoRepository.class);
+        List<List<Notificacao>> lotes = new ArrayList<>();
+        for (int lote = 0; lote < QUANTIDADE / TAMANHO_LOTE; lote++) {
+            int primeiro = lote * TAMANHO_LOTE;
+            lotes.add(IntStream.range(primeiro, primeiro + TAMANHO_LOTE)
+                .mapToObj(i -> {
+                    Notificacao notificacao = new Notificacao((long) i, "gestor" + i + "@gestcon.gov.br",
+                        "GERAL", "Aviso " + i, "Mensagem " + i);
+                    notificacao.setId((long) i);
+                    return notificacao;
+                })
+                .toList());
+            notificacoes.addAll(lotes.get(lote));
+        }
+        when(notificacaoRepository.reservarPendentes(any(), any(), anyInt()))
+            .thenReturn(lotes.get(0), lotes.subList(1, lotes.size()).toArray(List[]::new))
+            .thenReturn(List.of());
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        NotificacaoDispatcher dispatcher = new NotificacaoDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "notificacaoRepository", notificacaoRepository);
+        ReflectionTestUtils.setField(dispatcher, "mailSender", mailSender);
+        ReflectionTestUtils.setField(dispatcher, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(dispatcher, "modelos", new ModeloNotificacaoService());
+        ReflectionTestUtils.setField(dispatcher, "remetente", "noreply@gestcon.gov.br");
+        ReflectionTestUtils.setField(dispatcher, "tamanhoLote", TAMANHO_LOTE);
+        ReflectionTestUtils.setField(dispatcher, "maxTentativas", 3);
+        ReflectionTestUtils.setField(dispatcher, "esperaInicialSegundos", 30L);
+        ReflectionTestUtils.setField(dispatcher, "esperaMaximaSegundos", 3600L);
+        ReflectionTestUtils.setField(dispatcher, "reservaSegundos", 300L);
+        ReflectionTestUtils.setField(dispatcher, "concorrencia", concorrencia);
+        // Limite de taxa acima da capacidade do GreenMail, para medir só o envio
+        ReflectionTestUtils.setField(dispatcher, "taxaPorSegundo", 1_000_000.0);
+        ReflectionTestUtils.setField(dispatcher, "rajada", TAMANHO_LOTE);
+        return dispatcher;
+    }
+}
@@ -0,0 +1,186 @@
+package com.gestcon.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestcon.model.Contrato;
+import com.gestcon.model.Empresa;
+import com.gestcon.model.StatusContrato;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Exporta mais linhas que TAMANHO_FETCH e confere a saída linha a linha, o escape do CSV,
+ * as colunas de ID das associações e a limpeza periódica do contexto de persistência.
+ */
+@DataJpaTest
+@Import(ExportacaoService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+public class ExportacaoServiceTest {
+
+    private static final int QUANTIDADE = 2 * ExportacaoService.TAMANHO_FETCH + 203;
+
+    // Aspas, vírgula e quebras de linha, que obrigam o campo a ser citado no CSV
+    private static final String OBJETO_ESPECIAL = "Obra \"A\", bloco 2\nfase final\r\nrevisada";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    private Long empresaId;
+
+    @BeforeEach
+    public void setup() {
+        Empresa empresa = new Empresa();
+        empresa.setNome("Empresa");
+        empresa.setCnpj("00000000000001");
+        empresaId = entityManager.persistAndGetId(empresa, Long.class);
+
+        for (int i = 0; i < QUANTIDADE; i++) {
+            Contrato contrato = new Contrato();
+            contrato.setNumeroContrato("CT-" + i);
+            contrato.setEmpresa(empresa);
+            contrato.setObjeto(objeto(i));
+            contrato.setVigenciaInicio(LocalDate.of(2024, 1, 1));
+            contrato.setVigenciaFim(LocalDate.of(2025, 1, 1));
+            contrato.setValorTotal(new BigDecimal("1000.00"));
+            contrato.setStatus(StatusContrato.ATIVO);
+            contrato.setResponsavel("gestor@gestcon.gov.br");
+            ids.add(entityManager.persistAndGetId(contrato, Long.class));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testNdjsonLinhaALinha() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        long total = exportacaoService.exportar(Contrato.class, ExportacaoService.Formato.NDJSON, saida, "empresa");
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(QUANTIDADE, total);
+        assertEquals(QUANTIDADE, linhas.length);
+        for (int i = 0; i < QUANTIDADE; i++) {
+            JsonNode linha = objectMapper.readTree(linhas[i]);
+            assertEquals(ids.get(i), linha.get("id").asLong());
+            assertEquals("CT-" + i, linha.get("numeroContrato").asText());
+            assertEquals(objeto(i), linha.get("objeto").asText());
+            assertEquals(empresaId, linha.get("empresa").get("id").asLong());
+        }
+    }
+
+    @Test
+    public void testCsvLinhaALinhaComEscape() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        long total = exportacaoService.exportar(Contrato.class, ExportacaoService.Formato.CSV, saida, "empresa");
+
+        List<List<String>> registros = lerCsv(saida.toString(StandardCharsets.UTF_8));
+        List<String> cabecalho = registros.get(0);
+        int colunaId = cabecalho.indexOf("id");
+        int colunaEmpresa = cabecalho.indexOf("empresa.id");
+        int colunaObjeto = cabecalho.indexOf("objeto");
+        int colunaNumero = cabecalho.indexOf("numeroContrato");
+
+        assertEquals(QUANTIDADE, total);
+        assertEquals(QUANTIDADE + 1, registros.size());
+        for (int i = 0; i < QUANTIDADE; i++) {
+            List<String> registro = registros.get(i + 1);
+            assertEquals(cabecalho.size(), registro.size());
+            assertEquals(String.valueOf(ids.get(i)), registro.get(colunaId));
+            assertEquals("CT-" + i, registro.get(colunaNumero));
+            assertEquals(objeto(i), registro.get(colunaObjeto));
+            assertEquals(String.valueOf(empresaId), registro.get(colunaEmpresa));
+        }
+        assertTrue(saida.toString(StandardCharsets.UTF_8)
+            .contains("\"Obra \"\"A\"\", bloco 2\nfase final\r\nrevisada\""));
+    }
+
+    @Test
+    public void testLimpaContextoACadaTamanhoFetch() throws Exception {
+        ExportacaoService alvo = AopTestUtils.getTargetObject(exportacaoService);
+        EntityManager original = (EntityManager) ReflectionTestUtils.getField(alvo, "entityManager");
+        EntityManager espiao = mock(EntityManager.class, delegatesTo(original));
+        ReflectionTestUtils.setField(alvo, "entityManager", espiao);
+        try {
+            exportacaoService.exportar(Contrato.class, ExportacaoService.Formato.NDJSON,
+                new ByteArrayOutputStream(), "empresa");
+        } finally {
+            ReflectionTestUtils.setField(alvo, "entityManager", original);
+        }
+
+        verify(espiao, times(QUANTIDADE / ExportacaoService.TAMANHO_FETCH)).clear();
+    }
+
+    private static String objeto(int i) {
+        return i % 7 == 0 ? OBJETO_ESPECIAL + " " + i : "Objeto " + i;
+    }
+
+    /**
+     * Leitor de CSV (RFC 4180) para o teste: campos entre aspas podem conter vírgulas,
+     * quebras de linha e aspas duplicadas.
+     */
+    private static List<List<String>> lerCsv(String texto) {
+        List<List<String>> registros = new ArrayList<>();
+        List<String> registro = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean citado = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (citado) {
+                if (c == '"' && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    citado = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                citado = true;
+            } else if (c == ',') {
+                registro.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' && i + 1 < texto.length() && texto.charAt(i + 1) == '\n') {
+                registro.add(campo.toString());
+                campo.setLength(0);
+                registros.add(registro);
+                registro = new ArrayList<>();
+                i++;
+            } else {
+                campo.append(c);
+            }
+        }
+        return registros;
+    }
+}
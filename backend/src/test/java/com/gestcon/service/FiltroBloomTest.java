@@ -0,0 +1,50 @@
+package com.gestcon.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa o filtro de Bloom usado na deduplicação de notificações.
+ */
+public class FiltroBloomTest {
+
+    @Test
+    public void testSemFalsoNegativo() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(i + "|VENCIMENTO|2025-12-31");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.talvezContenha(i + "|VENCIMENTO|2025-12-31"));
+        }
+    }
+
+    @Test
+    public void testTaxaFalsoPositivoDentroDoEsperado() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(i + "|VENCIMENTO|2025-12-31");
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 10_000; i < 20_000; i++) {
+            if (filtro.talvezContenha(i + "|VENCIMENTO|2025-12-31")) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 300, "Falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    public void testChaveNovaAusente() {
+        FiltroBloom filtro = new FiltroBloom(100, 0.01);
+        filtro.adicionar("1|ENCERRAMENTO|2025-01-31");
+
+        assertFalse(filtro.talvezContenha("1|ENCERRAMENTO|2026-01-31"));
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(0, 0.01));
+    }
+}
@@ -0,0 +1,50 @@
+package com.gestcon.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa a precisão e a mesclagem do histograma de durações.
+ */
+public class HistogramaDuracoesTest {
+
+    @Test
+    public void testQuantisComErroRelativoDeUmPorCento() {
+        Random random = new Random(42);
+        long[] duracoes = new long[10_001];
+        HistogramaDuracoes histograma = new HistogramaDuracoes();
+        for (int i = 0; i < duracoes.length; i++) {
+            duracoes[i] = (long) Math.exp(random.nextDouble() * 15);
+            histograma.registrar(duracoes[i]);
+        }
+        Arrays.sort(duracoes);
+
+        for (double q : new double[] {0.5, 0.95, 0.99}) {
+            double exato = duracoes[(int) (q * (duracoes.length - 1))];
+            assertTrue(Math.abs(histograma.quantil(q) - exato) <= exato * 0.01, "q=" + q);
+        }
+    }
+
+    @Test
+    public void testMesclarEquivaleARegistrarTudo() {
+        HistogramaDuracoes a = new HistogramaDuracoes();
+        HistogramaDuracoes b = new HistogramaDuracoes();
+        HistogramaDuracoes todos = new HistogramaDuracoes();
+        for (long segundos = 0; segundos < 5000; segundos += 7) {
+            (segundos % 2 == 0 ? a : b).registrar(segundos);
+            todos.registrar(segundos);
+        }
+
+        a.mesclar(b);
+
+        assertEquals(todos.getTotal(), a.getTotal());
+        assertEquals(todos.getMedia(), a.getMedia(), 1e-9);
+        assertEquals(todos.quantil(0.95), a.quantil(0.95));
+        assertEquals(0, new HistogramaDuracoes().quantil(0.5));
+    }
+}
@@ -0,0 +1,48 @@
+package com.gestcon.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa o limitador de taxa (balde de fichas) usado no envio de emails.
+ */
+public class LimitadorTaxaTest {
+
+    @Test
+    public void testRajadaSemEspera() {
+        LimitadorTaxa limitador = new LimitadorTaxa(10, 5);
+
+        assertEquals(0, limitador.reservar(5));
+    }
+
+    @Test
+    public void testExcessoAguardaProporcionalATaxa() {
+        LimitadorTaxa limitador = new LimitadorTaxa(10, 5);
+        limitador.reservar(5);
+
+        long espera = limitador.reservar(10);
+
+        // 10 fichas a 10 por segundo: cerca de 1 segundo
+        assertTrue(espera > TimeUnit.MILLISECONDS.toNanos(900), "Espera: " + espera);
+        assertTrue(espera <= TimeUnit.MILLISECONDS.toNanos(1000), "Espera: " + espera);
+    }
+
+    @Test
+    public void testAdquirirAcimaDaCapacidadeRejeitado() {
+        LimitadorTaxa limitador = new LimitadorTaxa(10, 5);
+
+        assertThrows(IllegalArgumentException.class, () -> limitador.adquirir(6));
+    }
+
+    @Test
+    public void testTaxaZeroDesativaLimite() {
+        LimitadorTaxa limitador = new LimitadorTaxa(0, 1);
+
+        assertEquals(0, limitador.reservar(1_000));
+    }
+}
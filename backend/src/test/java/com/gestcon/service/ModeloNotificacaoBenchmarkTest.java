@@ -0,0 +1,70 @@
+package com.gestcon.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara a vazão de renderização dos itens de resumo: String.format contra modelo pré-compilado.
+ * Executar com: mvn test -Dtest=ModeloNotificacaoBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ModeloNotificacaoBenchmarkTest {
+
+    private static final int AQUECIMENTO = 200_000;
+
+    private static final int ITERACOES = 1_000_000;
+
+    @Test
+    public void testVazaoRenderizacao() {
+        ModeloNotificacao item = new ModeloNotificacaoService().obter("VENCIMENTO.resumo.item");
+        Map<String, Object> contexto = new HashMap<>();
+        contexto.put("numeroContrato", "CT-2024-0001");
+        contexto.put("empresa", "Empresa Exemplo LTDA");
+        contexto.put("vigenciaFim", LocalDate.of(2025, 12, 31));
+        contexto.put("valor", new BigDecimal("150000.00"));
+
+        medirFormat(contexto, AQUECIMENTO);
+        medirModelo(item, contexto, AQUECIMENTO);
+
+        long inicio = System.nanoTime();
+        int tamanhoFormat = medirFormat(contexto, ITERACOES);
+        double format = ITERACOES / ((System.nanoTime() - inicio) / 1e9);
+
+        inicio = System.nanoTime();
+        int tamanhoModelo = medirModelo(item, contexto, ITERACOES);
+        double modelo = ITERACOES / ((System.nanoTime() - inicio) / 1e9);
+
+        System.out.printf("String.format: %.0f itens/s | Modelo compilado: %.0f itens/s%n", format, modelo);
+        assertEquals(tamanhoFormat, tamanhoModelo);
+    }
+
+    private int medirFormat(Map<String, Object> contexto, int iteracoes) {
+        StringBuilder resumo = new StringBuilder();
+        int tamanho = 0;
+        for (int i = 0; i < iteracoes; i++) {
+            resumo.setLength(0);
+            resumo.append(String.format("- %s (%s): vence em %s\n",
+                contexto.get("numeroContrato"), contexto.get("empresa"), contexto.get("vigenciaFim")));
+            tamanho = resumo.length();
+        }
+        return tamanho;
+    }
+
+    private int medirModelo(ModeloNotificacao item, Map<String, Object> contexto, int iteracoes) {
+        StringBuilder resumo = new StringBuilder();
+        int tamanho = 0;
+        for (int i = 0; i < iteracoes; i++) {
+            resumo.setLength(0);
+            item.renderizar(contexto, resumo);
+            tamanho = resumo.length();
+        }
+        return tamanho;
+    }
+}
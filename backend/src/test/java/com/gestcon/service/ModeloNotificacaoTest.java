@@ -0,0 +1,52 @@
+package com.gestcon.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa a compilação e a renderização dos modelos de notificação.
+ */
+public class ModeloNotificacaoTest {
+
+    @Test
+    public void testRenderizaVariaveis() {
+        ModeloNotificacao modelo = ModeloNotificacao.compilar("Contrato {{numeroContrato}} da empresa {{ empresa }}.");
+
+        assertEquals("Contrato CT-1 da empresa ACME.",
+            modelo.renderizar(Map.of("numeroContrato", "CT-1", "empresa", "ACME")));
+    }
+
+    @Test
+    public void testVariavelAusenteViraVazio() {
+        ModeloNotificacao modelo = ModeloNotificacao.compilar("Valor: R$ {{valor}}");
+
+        assertEquals("Valor: R$ ", modelo.renderizar(Map.of()));
+    }
+
+    @Test
+    public void testHtmlEscapaExcetoChavesTriplas() {
+        ModeloNotificacao modelo = ModeloNotificacao.compilar("<h2>{{titulo}}</h2><p>{{{corpo}}}</p>", true);
+
+        assertEquals("<h2>A &amp; B</h2><p>linha<br></p>",
+            modelo.renderizar(Map.of("titulo", "A & B", "corpo", "linha<br>")));
+    }
+
+    @Test
+    public void testVariavelNaoFechada() {
+        assertThrows(IllegalArgumentException.class, () -> ModeloNotificacao.compilar("Contrato {{numeroContrato"));
+    }
+
+    @Test
+    public void testModelosDoClasspath() {
+        ModeloNotificacaoService modelos = new ModeloNotificacaoService();
+
+        assertEquals("Contrato Ativado - CT-1", modelos.renderizar("ATIVO.assunto", Map.of("numeroContrato", "CT-1")));
+        assertTrue(modelos.renderizarHtml("Aviso", "<linha 1>\nlinha 2").contains("&lt;linha 1&gt;<br>\nlinha 2"));
+        assertThrows(IllegalArgumentException.class, () -> modelos.obter("INEXISTENTE.assunto"));
+    }
+}
@@ -0,0 +1,224 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.NotificacaoInApp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa a fila por assinante do broadcaster com emitters simulados: cliente lento,
+ * descarte dos eventos mais antigos, remoção em falha de envio e publicação só após o commit.
+ */
+public class NotificacaoBroadcasterTest {
+
+    private static final String GESTOR = "gestor@gestcon.gov.br";
+
+    private static final String FISCAL = "fiscal@gestcon.gov.br";
+
+    private NotificacaoBroadcaster broadcaster = new NotificacaoBroadcaster(60_000, 3);
+
+    @AfterEach
+    public void encerrar() {
+        broadcaster.encerrar();
+    }
+
+    @Test
+    public void testClienteLentoDescartaMaisAntigosSemAtrasarOsDemais() throws Exception {
+        EmitterStub lento = new EmitterStub(new CountDownLatch(1));
+        EmitterStub rapido = new EmitterStub(new CountDownLatch(0));
+        broadcaster.assinar(GESTOR, lento);
+        broadcaster.assinar(FISCAL, rapido);
+
+        broadcaster.publicar(notificacao(1L, GESTOR));
+        assertTrue(lento.enviando.await(5, TimeUnit.SECONDS));
+
+        // Com o envio do evento 1 bloqueado, a fila de capacidade 3 fica com 4, 5 e 6
+        for (long id = 2; id <= 6; id++) {
+            broadcaster.publicar(notificacao(id, GESTOR));
+        }
+        assertEquals(2, broadcaster.getTotalDescartados());
+
+        broadcaster.publicar(notificacao(7L, FISCAL));
+        assertEquals(7L, rapido.proximo());
+
+        lento.liberar.countDown();
+        assertEquals(List.of(1L, 4L, 5L, 6L), lento.proximos(4));
+        assertNull(lento.recebidos.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testNovaDrenagemAgendadaAposFilaEsvaziar() throws Exception {
+        EmitterStub emitter = new EmitterStub(new CountDownLatch(0));
+        broadcaster.assinar(GESTOR, emitter);
+
+        broadcaster.publicar(notificacao(1L, GESTOR));
+        assertEquals(1L, emitter.proximo());
+
+        broadcaster.publicar(notificacao(2L, GESTOR));
+        broadcaster.publicar(notificacao(3L, GESTOR));
+        assertEquals(List.of(2L, 3L), emitter.proximos(2));
+        assertEquals(0, broadcaster.getTotalDescartados());
+    }
+
+    @Test
+    public void testFalhaDeEnvioRemoveAssinante() throws Exception {
+        EmitterStub emitter = new EmitterStub(new CountDownLatch(0));
+        emitter.falhar = true;
+        broadcaster.assinar(GESTOR, emitter);
+        assertEquals(1, broadcaster.getTotalConexoes());
+
+        broadcaster.publicar(notificacao(1L, GESTOR));
+        assertTrue(emitter.falhou.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50 && broadcaster.getTotalConexoes() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, broadcaster.getTotalConexoes());
+
+        emitter.falhar = false;
+        broadcaster.publicar(notificacao(2L, GESTOR));
+        assertNull(emitter.recebidos.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testPublicaSomenteAposCommit() throws Exception {
+        try (AnnotationConfigApplicationContext contexto = new AnnotationConfigApplicationContext(Configuracao.class)) {
+            broadcaster = contexto.getBean(NotificacaoBroadcaster.class);
+            EmitterStub emitter = new EmitterStub(new CountDownLatch(0));
+            broadcaster.assinar(GESTOR, emitter);
+            TransactionTemplate transacao = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+
+            transacao.executeWithoutResult(status -> {
+                contexto.publishEvent(notificacao(1L, GESTOR));
+                assertNull(emitter.recebidos.poll());
+                status.setRollbackOnly();
+            });
+            assertNull(emitter.recebidos.poll(200, TimeUnit.MILLISECONDS));
+
+            List<Long> antesDoCommit = new ArrayList<>();
+            transacao.executeWithoutResult(status -> {
+                contexto.publishEvent(notificacao(2L, GESTOR));
+                emitter.recebidos.drainTo(antesDoCommit);
+            });
+            assertTrue(antesDoCommit.isEmpty());
+            assertEquals(2L, emitter.proximo());
+        }
+    }
+
+    private static NotificacaoInApp notificacao(Long id, String usuario) {
+        return new NotificacaoInApp(id, 1L, usuario, "ATIVO", "Contrato Ativado", "", "NORMAL", LocalDateTime.now());
+    }
+
+    /**
+     * Emitter que registra os IDs enviados; o envio espera a liberação para simular
+     * um cliente lento (buffer TCP cheio).
+     */
+    private static class EmitterStub extends SseEmitter {
+
+        private static final Pattern ID = Pattern.compile("id:(\\d+)");
+
+        final BlockingQueue<Long> recebidos = new LinkedBlockingQueue<>();
+
+        final CountDownLatch enviando = new CountDownLatch(1);
+
+        final CountDownLatch falhou = new CountDownLatch(1);
+
+        final CountDownLatch liberar;
+
+        volatile boolean falhar;
+
+        EmitterStub(CountDownLatch liberar) {
+            this.liberar = liberar;
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            if (falhar) {
+                falhou.countDown();
+                throw new IOException("Conexão encerrada pelo cliente");
+            }
+            enviando.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            StringBuilder texto = new StringBuilder();
+            evento.build().forEach(parte -> texto.append(parte.getData()));
+            Matcher id = ID.matcher(texto);
+            if (id.find()) {
+                recebidos.add(Long.valueOf(id.group(1)));
+            }
+        }
+
+        long proximo() throws InterruptedException {
+            Long id = recebidos.poll(5, TimeUnit.SECONDS);
+            assertTrue(id != null, "Evento não entregue");
+            return id;
+        }
+
+        List<Long> proximos(int quantidade) throws InterruptedException {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < quantidade; i++) {
+                ids.add(proximo());
+            }
+            return ids;
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Configuracao {
+
+        @Bean
+        NotificacaoBroadcaster notificacaoBroadcaster() {
+            return new NotificacaoBroadcaster(60_000, 3);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new AbstractPlatformTransactionManager() {
+                @Override
+                protected Object doGetTransaction() {
+                    return new Object();
+                }
+
+                @Override
+                protected void doBegin(Object transaction, TransactionDefinition definition) {
+                }
+
+                @Override
+                protected void doCommit(DefaultTransactionStatus status) {
+                }
+
+                @Override
+                protected void doRollback(DefaultTransactionStatus status) {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.ResultadoEnvio;
+import com.gestcon.model.Notificacao;
+import com.gestcon.repository.NotificacaoRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testa o envio da outbox de notificações contra um servidor SMTP local (GreenMail).
+ */
+public class NotificacaoDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private NotificacaoRepository notificacaoRepository;
+
+    private NotificacaoDispatcher dispatcher;
+
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    public void setup() {
+        notificacaoRepository = mock(NotificacaoRepository.class);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        dispatcher = new NotificacaoDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "notificacaoRepository", notificacaoRepository);
+        ReflectionTestUtils.setField(dispatcher, "mailSender", mailSender);
+        ReflectionTestUtils.setField(dispatcher, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(dispatcher, "modelos", new ModeloNotificacaoService());
+        ReflectionTestUtils.setField(dispatcher, "remetente", "noreply@gestcon.gov.br");
+        ReflectionTestUtils.setField(dispatcher, "tamanhoLote", 50);
+        ReflectionTestUtils.setField(dispatcher, "maxTentativas", 3);
+        ReflectionTestUtils.setField(dispatcher, "esperaInicialSegundos", 30L);
+        ReflectionTestUtils.setField(dispatcher, "esperaMaximaSegundos", 3600L);
+        ReflectionTestUtils.setField(dispatcher, "reservaSegundos", 300L);
+        ReflectionTestUtils.setField(dispatcher, "concorrencia", 2);
+        ReflectionTestUtils.setField(dispatcher, "taxaPorSegundo", 100.0);
+        ReflectionTestUtils.setField(dispatcher, "rajada", 50);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dispatcher.encerrar();
+    }
+
+    @Test
+    public void testEnviaNotificacoesPendentes() throws Exception {
+        Notificacao notificacao = new Notificacao(1L, "gestor@gestcon.gov.br", "ATIVO",
+            "Contrato Ativado - 123", "O contrato 123 está agora ATIVO!");
+        notificacao.setId(10L);
+        when(notificacaoRepository.reservarPendentes(any(), any(), anyInt())).thenReturn(List.of(notificacao));
+
+        dispatcher.processarPendentes();
+
+        MimeMessage[] recebidas = greenMail.getReceivedMessages();
+        assertEquals(1, recebidas.length);
+        assertEquals("Contrato Ativado - 123", recebidas[0].getSubject());
+        assertEquals("ENVIADO", notificacao.getStatusEnvio());
+        assertNotNull(notificacao.getDataEnvio());
+        verify(notificacaoRepository).atualizarEnvio(eq(10L), eq("ENVIADO"), eq(0), isNull(), eq(notificacao.getDataEnvio()), isNull());
+        verify(notificacaoRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void testEnviaLoteEmConexoesReutilizadas() throws Exception {
+        List<Notificacao> notificacoes = IntStream.range(0, 10)
+            .mapToObj(i -> new Notificacao((long) i, "gestor" + i + "@gestcon.gov.br", "GERAL", "Aviso " + i, "Mensagem " + i))
+            .toList();
+        when(notificacaoRepository.reservarPendentes(any(), any(), anyInt())).thenReturn(notificacoes);
+
+        dispatcher.processarPendentes();
+
+        assertEquals(10, greenMail.getReceivedMessages().length);
+        assertTrue(notificacoes.stream().allMatch(n -> "ENVIADO".equals(n.getStatusEnvio())));
+    }
+
+    @Test
+    public void testEnviarAgoraRetornaResultadoPorDestinatario() throws Exception {
+        List<Notificacao> notificacoes = List.of(
+            new Notificacao(null, "gestor1@gestcon.gov.br", "GERAL", "Aviso", "Mensagem"),
+            new Notificacao(null, "gestor2@gestcon.gov.br", "GERAL", "Aviso", "Mensagem"));
+
+        List<ResultadoEnvio> resultados = dispatcher.enviarAgora(notificacoes).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, resultados.size());
+        assertTrue(resultados.stream().allMatch(resultado -> "ENVIADO".equals(resultado.status())));
+        assertEquals(2, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    public void testAgrupaResumosDoMesmoDestinatario() throws Exception {
+        Notificacao vencendo = new Notificacao(null, "gestor@gestcon.gov.br", "VENCIMENTO", "ALERTA: 2 contrato(s) vencendo", "- CT-1\n- CT-2");
+        Notificacao maisVencendo = new Notificacao(null, "gestor@gestcon.gov.br", "VENCIMENTO", "ALERTA: 1 contrato(s) vencendo", "- CT-3");
+        Notificacao avulsa = new Notificacao(4L, "gestor@gestcon.gov.br", "ATIVO", "Contrato Ativado - CT-4", "Ativo");
+        vencendo.agendarParaResumo(60);
+        maisVencendo.agendarParaResumo(60);
+        when(notificacaoRepository.reservarPendentes(any(), any(), anyInt()))
+            .thenReturn(List.of(vencendo, avulsa, maisVencendo));
+
+        dispatcher.processarPendentes();
+
+        MimeMessage[] recebidas = greenMail.getReceivedMessages();
+        assertEquals(2, recebidas.length);
+        assertTrue(List.of(recebidas[0].getSubject(), recebidas[1].getSubject()).contains("Resumo (2 avisos): ALERTA: 2 contrato(s) vencendo"));
+        assertEquals("ENVIADO", maisVencendo.getStatusEnvio());
+    }
+
+    @Test
+    public void testFalhaReagendaComBackoff() {
+        mailSender.setPort(ServerSetupTest.SMTP.getPort() + 1);
+        Notificacao notificacao = new Notificacao(1L, "gestor@gestcon.gov.br", "ATIVO", "Assunto", "Mensagem");
+        when(notificacaoRepository.reservarPendentes(any(), any(), anyInt())).thenReturn(List.of(notificacao));
+
+        dispatcher.processarPendentes();
+
+        assertEquals("PENDENTE", notificacao.getStatusEnvio());
+        assertEquals(1, notificacao.getTentativas());
+        assertTrue(notificacao.getProximaTentativa().isAfter(LocalDateTime.now().plusSeconds(20)));
+    }
+
+    @Test
+    public void testMarcaFalhaAposMaximoDeTentativas() {
+        Notificacao notificacao = new Notificacao(1L, "gestor@gestcon.gov.br", "ATIVO", "Assunto", "Mensagem");
+
+        for (int i = 0; i < 3; i++) {
+            notificacao.registrarFalha("Conexão recusada", 3, 30, 3600);
+        }
+
+        assertEquals("FALHA", notificacao.getStatusEnvio());
+        assertEquals(3, notificacao.getTentativas());
+    }
+}
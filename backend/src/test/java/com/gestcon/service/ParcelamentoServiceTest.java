@@ -0,0 +1,78 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.RegraParcelamento;
+import com.gestcon.dto.RegraParcelamento.Arredondamento;
+import com.gestcon.dto.RegraParcelamento.Periodicidade;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa o cálculo do cronograma de parcelas.
+ */
+public class ParcelamentoServiceTest {
+
+    @Test
+    public void testSomaDasParcelasIgualAoValorTotal() {
+        for (Arredondamento arredondamento : Arredondamento.values()) {
+            RegraParcelamento regra = new RegraParcelamento(12, Periodicidade.MENSAL,
+                LocalDate.of(2027, 1, 10), arredondamento, "gestor");
+
+            List<ParcelamentoService.Parcela> parcelas = ParcelamentoService.calcularParcelas(new BigDecimal("1000.00"), regra);
+
+            assertEquals(12, parcelas.size());
+            assertEquals(new BigDecimal("1000.00"), parcelas.stream()
+                .map(ParcelamentoService.Parcela::valor).reduce(BigDecimal.ZERO, BigDecimal::add));
+        }
+    }
+
+    @Test
+    public void testCentavosRestantesNaUltimaParcelaPorPadrao() {
+        RegraParcelamento regra = new RegraParcelamento(3, Periodicidade.MENSAL, LocalDate.of(2027, 1, 10), null, "gestor");
+
+        List<ParcelamentoService.Parcela> parcelas = ParcelamentoService.calcularParcelas(new BigDecimal("100.00"), regra);
+
+        assertEquals(new BigDecimal("33.33"), parcelas.get(0).valor());
+        assertEquals(new BigDecimal("33.34"), parcelas.get(2).valor());
+        assertEquals("3/3", parcelas.get(2).numero());
+    }
+
+    @Test
+    public void testVencimentosNaoDeslocamEmMesesCurtos() {
+        RegraParcelamento regra = new RegraParcelamento(3, Periodicidade.MENSAL,
+            LocalDate.of(2027, 1, 31), Arredondamento.DISTRIBUIR, "gestor");
+
+        List<ParcelamentoService.Parcela> parcelas = ParcelamentoService.calcularParcelas(new BigDecimal("300.00"), regra);
+
+        assertEquals(LocalDate.of(2027, 2, 28), parcelas.get(1).vencimento());
+        assertEquals(LocalDate.of(2027, 3, 31), parcelas.get(2).vencimento());
+    }
+
+    @Test
+    public void testValorMenorQueUmCentavoPorParcelaRejeitado() {
+        RegraParcelamento regra = new RegraParcelamento(360, Periodicidade.MENSAL, LocalDate.of(2027, 1, 10), null, "gestor");
+
+        assertFalse(ParcelamentoService.isParcelavel(new BigDecimal("1.00"), 360));
+        assertTrue(ParcelamentoService.isParcelavel(new BigDecimal("3.60"), 360));
+        assertThrows(IllegalArgumentException.class,
+            () -> ParcelamentoService.calcularParcelas(new BigDecimal("1.00"), regra));
+    }
+
+    @Test
+    public void testPeriodicidadeTrimestral() {
+        RegraParcelamento regra = new RegraParcelamento(4, Periodicidade.TRIMESTRAL,
+            LocalDate.of(2027, 1, 15), Arredondamento.PRIMEIRA_PARCELA, "gestor");
+
+        List<ParcelamentoService.Parcela> parcelas = ParcelamentoService.calcularParcelas(new BigDecimal("100.01"), regra);
+
+        assertEquals(new BigDecimal("25.01"), parcelas.get(0).valor());
+        assertEquals(LocalDate.of(2027, 10, 15), parcelas.get(3).vencimento());
+    }
+}
@@ -0,0 +1,59 @@
+package com.gestcon.service;
+
+import com.gestcon.model.StatusContrato;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.gestcon.model.StatusContrato.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa a compilação do grafo de transições do workflow.
+ */
+public class TabelaTransicoesTest {
+
+    private final TabelaTransicoes tabela = TabelaTransicoes.compilar(Map.of(
+        RASCUNHO, EnumSet.of(EM_ANALISE, CANCELADO),
+        EM_ANALISE, EnumSet.of(APROVADO, REJEITADO),
+        CANCELADO, EnumSet.noneOf(StatusContrato.class)));
+
+    @Test
+    public void testTransicoesValidas() {
+        assertTrue(tabela.isTransicaoValida(RASCUNHO, EM_ANALISE));
+        assertTrue(tabela.isTransicaoValida(EM_ANALISE, REJEITADO));
+        assertFalse(tabela.isTransicaoValida(RASCUNHO, ATIVO));
+        assertFalse(tabela.isTransicaoValida(null, ATIVO));
+    }
+
+    @Test
+    public void testProximosNaOrdemDoEnumSemAlocar() {
+        assertEquals(List.of(EM_ANALISE, CANCELADO), tabela.getProximos(RASCUNHO));
+        assertSame(tabela.getProximos(RASCUNHO), tabela.getProximos(RASCUNHO));
+        assertEquals(List.of(), tabela.getProximos(null));
+    }
+
+    @Test
+    public void testStatusFinal() {
+        assertTrue(tabela.isFinal(CANCELADO));
+        assertTrue(tabela.isFinal(ATIVO));
+        assertFalse(tabela.isFinal(RASCUNHO));
+    }
+
+    @Test
+    public void testIgualdadePorConteudo() {
+        TabelaTransicoes mesma = TabelaTransicoes.compilar(Map.of(
+            RASCUNHO, List.of(CANCELADO, EM_ANALISE),
+            EM_ANALISE, List.of(REJEITADO, APROVADO)));
+        TabelaTransicoes outra = TabelaTransicoes.compilar(Map.of(RASCUNHO, List.of(EM_ANALISE)));
+
+        assertEquals(tabela, mesma);
+        assertNotEquals(tabela, outra);
+    }
+}
@@ -0,0 +1,90 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.TempoStatus;
+import com.gestcon.model.Contrato;
+import com.gestcon.model.ProcessoContrato;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testa o cálculo incremental do tempo em status a partir de novas transições.
+ */
+public class TempoStatusServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    private final TempoStatusService service = new TempoStatusService();
+
+    @Test
+    public void testMedeTempoEntreTransicoesPorResponsavel() {
+        Contrato primeiro = contrato(1L);
+        Contrato segundo = contrato(2L);
+        service.registrar(List.of(
+            processo(primeiro, "EM_ANALISE", INICIO, "gestor"),
+            processo(segundo, "EM_ANALISE", INICIO, "gestor")));
+        service.registrar(List.of(
+            processo(primeiro, "APROVADO", INICIO.plusHours(2), "ana@gestcon.gov.br"),
+            processo(segundo, "PENDENTE_DOCUMENTOS", INICIO.plusHours(10), "bruno@gestcon.gov.br")));
+        // Reaplicar a mesma transição não conta de novo
+        service.registrar(List.of(processo(primeiro, "APROVADO", INICIO.plusHours(2), "ana@gestcon.gov.br")));
+
+        List<TempoStatus> porResponsavel = service.obter(true);
+        assertEquals(2, porResponsavel.size());
+        assertEquals("ana@gestcon.gov.br", porResponsavel.get(0).responsavel());
+        assertEquals(2.0, porResponsavel.get(0).p50Horas(), 0.02 * 2);
+
+        TempoStatus emAnalise = service.obter(false).get(0);
+        assertEquals("EM_ANALISE", emAnalise.status());
+        assertEquals(2, emAnalise.quantidade());
+        assertEquals(6.0, emAnalise.mediaHoras(), 1e-9);
+    }
+
+    @Test
+    public void testTransicaoAntigaReaplicadaNaoRegrideStatus() {
+        Contrato contrato = contrato(1L);
+        service.registrar(List.of(processo(contrato, "EM_ANALISE", INICIO, "gestor")));
+        service.registrar(List.of(processo(contrato, "APROVADO", INICIO.plusHours(2), "ana@gestcon.gov.br")));
+        service.registrar(List.of(processo(contrato, "ASSINADO", INICIO.plusHours(5), "ana@gestcon.gov.br")));
+        // Reaplicação de "pendentes" após o streaming já ter lido transições mais novas
+        service.registrar(List.of(processo(contrato, "APROVADO", INICIO.plusHours(2), "ana@gestcon.gov.br")));
+        service.registrar(List.of(processo(contrato, "ATIVO", INICIO.plusHours(6), "ana@gestcon.gov.br")));
+
+        List<TempoStatus> porStatus = service.obter(false);
+        assertEquals(List.of("APROVADO", "ASSINADO", "EM_ANALISE"), porStatus.stream().map(TempoStatus::status).toList());
+        porStatus.forEach(tempo -> assertEquals(1, tempo.quantidade()));
+        // ASSINADO durou 1h (5h -> 6h), e não 4h a partir da transição reaplicada
+        assertEquals(1.0, porStatus.get(1).mediaHoras(), 1e-9);
+    }
+
+    @Test
+    public void testReatribuirContratoNaoMoveHistorico() {
+        Contrato contrato = contrato(1L);
+        contrato.setResponsavel("ana@gestcon.gov.br");
+        service.registrar(List.of(processo(contrato, "EM_ANALISE", INICIO, "gestor")));
+        service.registrar(List.of(processo(contrato, "APROVADO", INICIO.plusHours(2), "ana@gestcon.gov.br")));
+        contrato.setResponsavel("bruno@gestcon.gov.br");
+        service.registrar(List.of(processo(contrato, "ASSINADO", INICIO.plusHours(3), "bruno@gestcon.gov.br")));
+
+        List<TempoStatus> porResponsavel = service.obter(true);
+        assertEquals("APROVADO", porResponsavel.get(0).status());
+        assertEquals("bruno@gestcon.gov.br", porResponsavel.get(0).responsavel());
+        assertEquals("EM_ANALISE", porResponsavel.get(1).status());
+        assertEquals("ana@gestcon.gov.br", porResponsavel.get(1).responsavel());
+    }
+
+    private static Contrato contrato(Long id) {
+        Contrato contrato = new Contrato();
+        contrato.setId(id);
+        return contrato;
+    }
+
+    private static ProcessoContrato processo(Contrato contrato, String status, LocalDateTime dataAcao, String usuario) {
+        ProcessoContrato processo = new ProcessoContrato(contrato, "ANTERIOR", status, "Ação", usuario);
+        processo.setDataAcao(dataAcao);
+        return processo;
+    }
+}
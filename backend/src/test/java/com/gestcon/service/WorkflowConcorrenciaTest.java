@@ -0,0 +1,185 @@
+package com.gestcon.service;
+
+import com.gestcon.dto.EstatisticaStatus;
+import com.gestcon.model.Contrato;
+import com.gestcon.model.Empresa;
+import com.gestcon.model.ProcessoContrato;
+import com.gestcon.repository.ContratoRepository;
+import com.gestcon.repository.EmpresaRepository;
+import com.gestcon.repository.ProcessoContratoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.gestcon.model.StatusContrato.APROVADO;
+import static com.gestcon.model.StatusContrato.EM_ANALISE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dispara muitas threads contra o mesmo contrato, cada uma em sua própria transação e com o
+ * repositório real sobre PostgreSQL, para garantir que o compare-and-set de alterarStatus
+ * produz uma única transição, um único registro de histórico e um único incremento de versão.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import({WorkflowService.class, ContadoresWorkflow.class, EstatisticasProcessoService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class WorkflowConcorrenciaTest {
+
+    private static final int THREADS = 32;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private WorkflowService workflowService;
+
+    @Autowired
+    private ContadoresWorkflow contadores;
+
+    @Autowired
+    private ContratoRepository contratoRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private NotificacaoService notificacaoService;
+
+    @MockBean
+    private TempoStatusService tempoStatus;
+
+    private Long contratoId;
+
+    @BeforeEach
+    public void setup() {
+        Empresa empresa = new Empresa();
+        empresa.setNome("Empresa");
+        empresa.setCnpj("00000000000001");
+        empresaRepository.save(empresa);
+
+        Contrato contrato = new Contrato();
+        contrato.setNumeroContrato("CT-1");
+        contrato.setEmpresa(empresa);
+        contrato.setObjeto("Objeto");
+        contrato.setVigenciaInicio(LocalDate.of(2024, 1, 1));
+        contrato.setVigenciaFim(LocalDate.of(2025, 1, 1));
+        contrato.setValorTotal(new BigDecimal("100.00"));
+        contrato.setStatus(EM_ANALISE);
+        contrato.setResponsavel("gestor@gestcon.gov.br");
+        contratoId = contratoRepository.save(contrato).getId();
+        contadores.reconciliar();
+    }
+
+    @AfterEach
+    public void limpar() {
+        jdbcTemplate.execute("DELETE FROM processos_contrato_diario");
+        jdbcTemplate.execute("DELETE FROM processos_contrato");
+        jdbcTemplate.execute("DELETE FROM contratos");
+        jdbcTemplate.execute("DELETE FROM empresas");
+    }
+
+    @Test
+    public void testAprovacoesSimultaneasGeramUmaUnicaTransicao() throws Exception {
+        long versaoInicial = versao();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<ProcessoContrato>> resultados = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            // Cada thread parte da sua própria cópia do contrato, lida ainda em EM_ANALISE
+            Contrato contrato = contratoRepository.findById(contratoId).orElseThrow();
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                return workflowService.alterarStatus(contrato, APROVADO, "Aprovação", "gestor", null);
+            }));
+        }
+        largada.countDown();
+
+        int aprovados = 0;
+        int rejeitados = 0;
+        for (Future<ProcessoContrato> resultado : resultados) {
+            try {
+                resultado.get();
+                aprovados++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException, e.getCause().toString());
+                rejeitados++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, aprovados);
+        assertEquals(THREADS - 1, rejeitados);
+        assertEquals(APROVADO, contratoRepository.findStatusById(contratoId).orElseThrow());
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM processos_contrato WHERE contrato_id = ?", Integer.class, contratoId));
+        assertEquals(versaoInicial + 1, versao());
+        assertEquals(1L, jdbcTemplate.queryForObject(
+            "SELECT SUM(quantidade) FROM processos_contrato_diario", Long.class));
+        assertEquals(new EstatisticaStatus(APROVADO, 1, new BigDecimal("100.00")),
+            contadores.obter().get(APROVADO.ordinal()));
+    }
+
+    @Test
+    public void testConflitoPersistenteEsgotaTentativas() {
+        ContratoRepository repositorioEmConflito = mock(ContratoRepository.class);
+        when(repositorioEmConflito.atualizarStatus(anyCollection(), anyString(), anyString())).thenReturn(List.of());
+        when(repositorioEmConflito.findStatusById(anyLong())).thenReturn(Optional.of(EM_ANALISE));
+        WorkflowService servico = new WorkflowService();
+        ReflectionTestUtils.setField(servico, "contratoRepository", repositorioEmConflito);
+        ReflectionTestUtils.setField(servico, "processoContratoRepository", mock(ProcessoContratoRepository.class));
+        ReflectionTestUtils.setField(servico, "entityManager", mock(EntityManager.class));
+        ReflectionTestUtils.setField(servico, "maxTentativasTransicao", 3);
+
+        Contrato contrato = contratoRepository.findById(contratoId).orElseThrow();
+        assertThrows(OptimisticLockingFailureException.class,
+            () -> servico.alterarStatus(contrato, APROVADO, "Aprovação", "gestor", null));
+        verify(repositorioEmConflito, times(3)).atualizarStatus(anyCollection(), anyString(), anyString());
+    }
+
+    private long versao() {
+        return jdbcTemplate.queryForObject("SELECT versao FROM contratos WHERE id = ?", Long.class, contratoId);
+    }
+}
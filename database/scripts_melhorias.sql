@@ -22,7 +22,8 @@ CREATE TABLE IF NOT EXISTS processos_contrato (
 );
 
 -- Índices para otimização de consultas
-CREATE INDEX idx_processos_contrato_id ON processos_contrato(contrato_id);
+-- Histórico por contrato do mais recente para o mais antigo (paginação keyset)
+CREATE INDEX idx_processos_contrato_data_acao ON processos_contrato(contrato_id, data_acao DESC, id DESC);
 CREATE INDEX idx_processos_data_acao ON processos_contrato(data_acao);
 CREATE INDEX idx_processos_status_atual ON processos_contrato(status_atual);
 CREATE INDEX idx_processos_usuario ON processos_contrato(usuario_responsavel);
@@ -128,6 +129,36 @@ CREATE INDEX idx_documentos_contrato_id ON documentos(contrato_id);
 CREATE INDEX idx_documentos_tipo ON documentos(tipo_documento);
 CREATE INDEX idx_documentos_data_upload ON documentos(data_upload);
 
+-- =====================================================
+-- TABELA: workflow_transicoes
+-- Descrição: Transições permitidas no workflow de contratos.
+-- O backend recarrega esta tabela periodicamente (sem deploy)
+-- =====================================================
+CREATE SEQUENCE IF NOT EXISTS workflow_transicoes_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS workflow_transicoes (
+    id BIGINT PRIMARY KEY DEFAULT nextval('workflow_transicoes_seq'),
+    status_origem VARCHAR(20) NOT NULL,
+    status_destino VARCHAR(20) NOT NULL,
+    ativo BOOLEAN NOT NULL DEFAULT TRUE,
+
+    CONSTRAINT uk_workflow_transicao UNIQUE (status_origem, status_destino)
+);
+
+INSERT INTO workflow_transicoes (status_origem, status_destino) VALUES
+    ('RASCUNHO', 'EM_ANALISE'), ('RASCUNHO', 'CANCELADO'),
+    ('EM_ANALISE', 'APROVADO'), ('EM_ANALISE', 'REJEITADO'), ('EM_ANALISE', 'PENDENTE_DOCUMENTOS'),
+    ('PENDENTE_DOCUMENTOS', 'EM_ANALISE'), ('PENDENTE_DOCUMENTOS', 'CANCELADO'),
+    ('APROVADO', 'ASSINADO'), ('APROVADO', 'REJEITADO'),
+    ('ASSINADO', 'ATIVO'), ('ASSINADO', 'CANCELADO'),
+    ('ATIVO', 'EM_RENOVACAO'), ('ATIVO', 'SUSPENSO'), ('ATIVO', 'VENCIDO'), ('ATIVO', 'INADIMPLENTE'), ('ATIVO', 'ENCERRADO'),
+    ('VENCIDO', 'EM_RENOVACAO'), ('VENCIDO', 'ENCERRADO'),
+    ('EM_RENOVACAO', 'ATIVO'), ('EM_RENOVACAO', 'ENCERRADO'),
+    ('SUSPENSO', 'ATIVO'), ('SUSPENSO', 'ENCERRADO'),
+    ('INADIMPLENTE', 'ATIVO'), ('INADIMPLENTE', 'ENCERRADO'),
+    ('REJEITADO', 'RASCUNHO'), ('REJEITADO', 'CANCELADO')
+ON CONFLICT (status_origem, status_destino) DO NOTHING;
+
 -- =====================================================
 -- TABELA: notificacoes
 -- Descrição: Sistema de notificações in-app
@@ -143,18 +174,58 @@ CREATE TABLE IF NOT EXISTS notificacoes (
     data_criacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     data_leitura TIMESTAMP,
     prioridade VARCHAR(10) DEFAULT 'NORMAL',
+    -- Outbox de email: envio em segundo plano com novas tentativas
+    status_envio VARCHAR(10) NOT NULL DEFAULT 'PENDENTE',
+    tentativas INTEGER NOT NULL DEFAULT 0,
+    proxima_tentativa TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    data_envio TIMESTAMP,
+    ultimo_erro TEXT,
+    -- Resumo: notificações agrupáveis do mesmo destinatário e tipo saem em um único email
+    agrupavel BOOLEAN NOT NULL DEFAULT FALSE,
     
     CONSTRAINT fk_notificacao_contrato 
         FOREIGN KEY (contrato_id) REFERENCES contratos(id) ON DELETE CASCADE,
     CONSTRAINT chk_notificacao_prioridade 
-        CHECK (prioridade IN ('BAIXA', 'NORMAL', 'ALTA', 'URGENTE'))
+        CHECK (prioridade IN ('BAIXA', 'NORMAL', 'ALTA', 'URGENTE')),
+    CONSTRAINT chk_notificacao_status_envio 
+        CHECK (status_envio IN ('PENDENTE', 'ENVIADO', 'FALHA'))
 );
 
+-- Colunas da outbox e do resumo em bancos criados antes delas. As notificações
+-- já existentes entram como ENVIADO para não serem reenviadas por email.
+ALTER TABLE notificacoes ADD COLUMN IF NOT EXISTS status_envio VARCHAR(10) NOT NULL DEFAULT 'ENVIADO'
+    CONSTRAINT chk_notificacao_status_envio CHECK (status_envio IN ('PENDENTE', 'ENVIADO', 'FALHA'));
+ALTER TABLE notificacoes ALTER COLUMN status_envio SET DEFAULT 'PENDENTE';
+ALTER TABLE notificacoes ADD COLUMN IF NOT EXISTS tentativas INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE notificacoes ADD COLUMN IF NOT EXISTS proxima_tentativa TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE notificacoes ADD COLUMN IF NOT EXISTS data_envio TIMESTAMP;
+ALTER TABLE notificacoes ADD COLUMN IF NOT EXISTS ultimo_erro TEXT;
+ALTER TABLE notificacoes ADD COLUMN IF NOT EXISTS agrupavel BOOLEAN NOT NULL DEFAULT FALSE;
+
 -- Índices para notificações
 CREATE INDEX idx_notificacoes_usuario ON notificacoes(usuario_destinatario);
 CREATE INDEX idx_notificacoes_lida ON notificacoes(lida);
 CREATE INDEX idx_notificacoes_data_criacao ON notificacoes(data_criacao);
 CREATE INDEX idx_notificacoes_tipo ON notificacoes(tipo);
+CREATE INDEX idx_notificacoes_envio_pendente ON notificacoes(status_envio, proxima_tentativa);
+-- Notificações in-app não lidas por usuário (carga inicial do cliente SSE)
+CREATE INDEX idx_notificacoes_nao_lidas ON notificacoes(usuario_destinatario, data_criacao DESC) WHERE lida = FALSE;
+
+-- =====================================================
+-- TABELA: notificacoes_deduplicacao
+-- Descrição: Registro de (contrato, tipo, período) já notificados pela varredura,
+-- para que execuções repetidas não reenviem os mesmos alertas
+-- =====================================================
+CREATE TABLE IF NOT EXISTS notificacoes_deduplicacao (
+    contrato_id BIGINT NOT NULL,
+    tipo VARCHAR(50) NOT NULL,
+    periodo VARCHAR(20) NOT NULL,
+    data_criacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_notificacoes_deduplicacao PRIMARY KEY (contrato_id, tipo, periodo),
+    CONSTRAINT fk_deduplicacao_contrato
+        FOREIGN KEY (contrato_id) REFERENCES contratos(id) ON DELETE CASCADE
+);
 
 -- =====================================================
 -- TABELA: logs_auditoria
@@ -182,6 +253,182 @@ CREATE INDEX idx_logs_auditoria_registro_id ON logs_auditoria(registro_id);
 CREATE INDEX idx_logs_auditoria_usuario ON logs_auditoria(usuario);
 CREATE INDEX idx_logs_auditoria_data ON logs_auditoria(data_operacao);
 
+-- =====================================================
+-- ÍNDICES: contratos
+-- Descrição: Consultas por status e janela de vigência
+-- =====================================================
+CREATE INDEX IF NOT EXISTS idx_contratos_status_vigencia_fim ON contratos(status, vigencia_fim);
+CREATE INDEX IF NOT EXISTS idx_contratos_vigencia_fim ON contratos(vigencia_fim);
+
+-- =====================================================
+-- SEQUÊNCIAS: geração de IDs em blocos de 50
+-- Descrição: Permite ao Hibernate agrupar INSERTs em lotes JDBC
+-- (IDENTITY obriga um round trip por linha). O Hibernate usa cada
+-- valor da sequência como o maior ID de um bloco de 50; o DEFAULT
+-- da coluna passa a usar a mesma sequência (e a antiga do BIGSERIAL
+-- é removida), de modo que INSERTs feitos em SQL consomem um bloco
+-- inteiro e nunca colidem com os IDs reservados pela aplicação.
+-- =====================================================
+-- Posiciona cada sequência acima do maior ID existente, sem nunca retroceder.
+-- Executada aqui e novamente no fim do script, após as cargas em SQL.
+CREATE OR REPLACE FUNCTION fn_ajustar_sequencias() RETURNS void AS $$
+DECLARE
+    tabela TEXT;
+    maior_id BIGINT;
+    atual BIGINT;
+BEGIN
+    FOREACH tabela IN ARRAY ARRAY['contratos', 'empresas', 'usuarios', 'pagamentos',
+                                  'notas_fiscais', 'processos_contrato', 'notificacoes',
+                                  'workflow_transicoes'] LOOP
+        IF to_regclass(tabela) IS NOT NULL THEN
+            EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', tabela) INTO maior_id;
+            EXECUTE format('SELECT last_value FROM %I', tabela || '_seq') INTO atual;
+            PERFORM setval(tabela || '_seq', GREATEST(maior_id, atual));
+        END IF;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    tabela TEXT;
+    sequencia_antiga TEXT;
+BEGIN
+    FOREACH tabela IN ARRAY ARRAY['contratos', 'empresas', 'usuarios', 'pagamentos',
+                                  'notas_fiscais', 'processos_contrato', 'notificacoes'] LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', tabela || '_seq');
+        IF to_regclass(tabela) IS NOT NULL THEN
+            sequencia_antiga := pg_get_serial_sequence(tabela, 'id');
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', tabela, tabela || '_seq');
+            EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', tabela || '_seq', tabela);
+            IF sequencia_antiga IS NOT NULL AND sequencia_antiga <> 'public.' || tabela || '_seq' THEN
+                EXECUTE format('DROP SEQUENCE IF EXISTS %s', sequencia_antiga);
+            END IF;
+        END IF;
+    END LOOP;
+END;
+$$;
+
+SELECT fn_ajustar_sequencias();
+
+-- =====================================================
+-- VERSIONAMENTO: coluna versao (lock otimista e ETag)
+-- Descrição: Incrementada pelo Hibernate a cada atualização
+-- =====================================================
+DO $$
+DECLARE
+    tabela TEXT;
+BEGIN
+    FOREACH tabela IN ARRAY ARRAY['contratos', 'empresas', 'usuarios', 'pagamentos',
+                                  'notas_fiscais', 'processos_contrato'] LOOP
+        IF to_regclass(tabela) IS NOT NULL THEN
+            EXECUTE format('ALTER TABLE %I ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0', tabela);
+        END IF;
+    END LOOP;
+END;
+$$;
+
+-- =====================================================
+-- TABELA: resumo_financeiro_contratos
+-- Descrição: Totais financeiros por contrato, mantidos por trigger a
+-- cada INSERT/UPDATE/DELETE em pagamentos (aplica só a diferença entre
+-- a linha antiga e a nova). Consultas não precisam varrer pagamentos.
+-- =====================================================
+CREATE TABLE IF NOT EXISTS resumo_financeiro_contratos (
+    contrato_id BIGINT PRIMARY KEY,
+    total_previsto NUMERIC(15,2) NOT NULL DEFAULT 0,
+    total_pago NUMERIC(15,2) NOT NULL DEFAULT 0,
+    total_pendente NUMERIC(15,2) NOT NULL DEFAULT 0,
+    total_diferenca NUMERIC(15,2) NOT NULL DEFAULT 0,
+    total_parcelas BIGINT NOT NULL DEFAULT 0,
+    parcelas_pagas BIGINT NOT NULL DEFAULT 0,
+    parcelas_pendentes BIGINT NOT NULL DEFAULT 0,
+    parcelas_atrasadas BIGINT NOT NULL DEFAULT 0,
+    data_atualizacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_resumo_financeiro_contrato
+        FOREIGN KEY (contrato_id) REFERENCES contratos(id) ON DELETE CASCADE
+);
+
+-- Soma ao resumo do contrato a contribuição de uma linha de pagamento (sinal +1 ou -1)
+CREATE OR REPLACE FUNCTION fn_somar_resumo_financeiro(pagamento pagamentos, sinal INTEGER) RETURNS void AS $$
+BEGIN
+    INSERT INTO resumo_financeiro_contratos AS r (
+        contrato_id, total_previsto, total_pago, total_pendente, total_diferenca,
+        total_parcelas, parcelas_pagas, parcelas_pendentes, parcelas_atrasadas)
+    VALUES (
+        pagamento.contrato_id,
+        sinal * COALESCE(pagamento.valor_previsto, 0),
+        sinal * COALESCE(pagamento.valor_pago, 0),
+        sinal * CASE WHEN pagamento.status = 'PENDENTE' THEN COALESCE(pagamento.valor_previsto, 0) ELSE 0 END,
+        sinal * CASE WHEN pagamento.valor_pago IS NOT NULL THEN pagamento.valor_pago - COALESCE(pagamento.valor_previsto, 0) ELSE 0 END,
+        sinal,
+        sinal * (pagamento.status = 'PAGO')::INTEGER,
+        sinal * (pagamento.status = 'PENDENTE')::INTEGER,
+        sinal * (pagamento.status = 'ATRASADO')::INTEGER)
+    ON CONFLICT (contrato_id) DO UPDATE SET
+        total_previsto = r.total_previsto + EXCLUDED.total_previsto,
+        total_pago = r.total_pago + EXCLUDED.total_pago,
+        total_pendente = r.total_pendente + EXCLUDED.total_pendente,
+        total_diferenca = r.total_diferenca + EXCLUDED.total_diferenca,
+        total_parcelas = r.total_parcelas + EXCLUDED.total_parcelas,
+        parcelas_pagas = r.parcelas_pagas + EXCLUDED.parcelas_pagas,
+        parcelas_pendentes = r.parcelas_pendentes + EXCLUDED.parcelas_pendentes,
+        parcelas_atrasadas = r.parcelas_atrasadas + EXCLUDED.parcelas_atrasadas,
+        data_atualizacao = CURRENT_TIMESTAMP;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION fn_resumo_financeiro() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+       AND OLD.contrato_id = NEW.contrato_id
+       AND OLD.valor_previsto IS NOT DISTINCT FROM NEW.valor_previsto
+       AND OLD.valor_pago IS NOT DISTINCT FROM NEW.valor_pago
+       AND OLD.status IS NOT DISTINCT FROM NEW.status THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM fn_somar_resumo_financeiro(OLD, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM fn_somar_resumo_financeiro(NEW, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER tg_resumo_financeiro
+    AFTER INSERT OR DELETE OR UPDATE OF contrato_id, valor_previsto, valor_pago, status ON pagamentos
+    FOR EACH ROW EXECUTE FUNCTION fn_resumo_financeiro();
+
+-- Carga inicial a partir dos pagamentos existentes
+INSERT INTO resumo_financeiro_contratos (
+    contrato_id, total_previsto, total_pago, total_pendente, total_diferenca,
+    total_parcelas, parcelas_pagas, parcelas_pendentes, parcelas_atrasadas)
+SELECT
+    contrato_id,
+    COALESCE(SUM(valor_previsto), 0),
+    COALESCE(SUM(valor_pago), 0),
+    COALESCE(SUM(CASE WHEN status = 'PENDENTE' THEN valor_previsto ELSE 0 END), 0),
+    COALESCE(SUM(CASE WHEN valor_pago IS NOT NULL THEN valor_pago - COALESCE(valor_previsto, 0) ELSE 0 END), 0),
+    COUNT(*),
+    COUNT(CASE WHEN status = 'PAGO' THEN 1 END),
+    COUNT(CASE WHEN status = 'PENDENTE' THEN 1 END),
+    COUNT(CASE WHEN status = 'ATRASADO' THEN 1 END)
+FROM pagamentos
+GROUP BY contrato_id
+ON CONFLICT (contrato_id) DO UPDATE SET
+    total_previsto = EXCLUDED.total_previsto,
+    total_pago = EXCLUDED.total_pago,
+    total_pendente = EXCLUDED.total_pendente,
+    total_diferenca = EXCLUDED.total_diferenca,
+    total_parcelas = EXCLUDED.total_parcelas,
+    parcelas_pagas = EXCLUDED.parcelas_pagas,
+    parcelas_pendentes = EXCLUDED.parcelas_pendentes,
+    parcelas_atrasadas = EXCLUDED.parcelas_atrasadas,
+    data_atualizacao = CURRENT_TIMESTAMP;
+
 -- =====================================================
 -- VIEWS PARA RELATÓRIOS E DASHBOARDS
 -- =====================================================
@@ -208,21 +455,23 @@ FROM contratos c
 JOIN empresas e ON c.empresa_id = e.id;
 
 -- View: Resumo financeiro por contrato
-CREATE OR REPLACE VIEW vw_resumo_financeiro AS
+-- Lê a tabela resumo_financeiro_contratos, mantida incrementalmente
+-- pelo trigger tg_resumo_financeiro (sem reagregar pagamentos)
+DROP VIEW IF EXISTS vw_resumo_financeiro;
+CREATE VIEW vw_resumo_financeiro AS
 SELECT 
     c.id as contrato_id,
     c.numero_contrato,
     c.valor_total,
-    COALESCE(SUM(p.valor_previsto), 0) as total_previsto,
-    COALESCE(SUM(p.valor_pago), 0) as total_pago,
-    COALESCE(SUM(CASE WHEN p.status = 'PENDENTE' THEN p.valor_previsto ELSE 0 END), 0) as total_pendente,
-    COUNT(p.id) as total_parcelas,
-    COUNT(CASE WHEN p.status = 'PAGO' THEN 1 END) as parcelas_pagas,
-    COUNT(CASE WHEN p.status = 'PENDENTE' THEN 1 END) as parcelas_pendentes,
-    COUNT(CASE WHEN p.status = 'ATRASADO' THEN 1 END) as parcelas_atrasadas
+    COALESCE(r.total_previsto, 0) as total_previsto,
+    COALESCE(r.total_pago, 0) as total_pago,
+    COALESCE(r.total_pendente, 0) as total_pendente,
+    COALESCE(r.total_parcelas, 0) as total_parcelas,
+    COALESCE(r.parcelas_pagas, 0) as parcelas_pagas,
+    COALESCE(r.parcelas_pendentes, 0) as parcelas_pendentes,
+    COALESCE(r.parcelas_atrasadas, 0) as parcelas_atrasadas
 FROM contratos c
-LEFT JOIN pagamentos p ON c.id = p.contrato_id
-GROUP BY c.id, c.numero_contrato, c.valor_total;
+LEFT JOIN resumo_financeiro_contratos r ON r.contrato_id = c.id;
 
 -- View: Dashboard executivo
 CREATE OR REPLACE VIEW vw_dashboard_executivo AS
@@ -241,19 +490,34 @@ FROM contratos;
 -- =====================================================
 
 -- Função para auditoria automática
+-- Em UPDATE registra apenas as colunas alteradas (anterior e novo valor)
+-- O usuário gravado é o informado pela aplicação em gestcon.usuario
+-- (set_config(..., true), válido até o fim da transação) ou o usuário do banco
 CREATE OR REPLACE FUNCTION fn_auditoria() RETURNS TRIGGER AS $$
+DECLARE
+    anteriores JSONB;
+    novos JSONB;
+    usuario_auditoria VARCHAR := COALESCE(NULLIF(current_setting('gestcon.usuario', true), ''), current_user);
 BEGIN
     IF TG_OP = 'INSERT' THEN
         INSERT INTO logs_auditoria (tabela, operacao, registro_id, dados_novos, usuario)
-        VALUES (TG_TABLE_NAME, TG_OP, NEW.id, row_to_json(NEW), current_user);
+        VALUES (TG_TABLE_NAME, TG_OP, NEW.id, row_to_json(NEW), usuario_auditoria);
         RETURN NEW;
     ELSIF TG_OP = 'UPDATE' THEN
-        INSERT INTO logs_auditoria (tabela, operacao, registro_id, dados_anteriores, dados_novos, usuario)
-        VALUES (TG_TABLE_NAME, TG_OP, NEW.id, row_to_json(OLD), row_to_json(NEW), current_user);
+        SELECT jsonb_object_agg(o.key, o.value), jsonb_object_agg(n.key, n.value)
+          INTO anteriores, novos
+          FROM jsonb_each(to_jsonb(NEW)) n
+          JOIN jsonb_each(to_jsonb(OLD)) o ON o.key = n.key
+         WHERE n.value IS DISTINCT FROM o.value;
+
+        IF novos IS NOT NULL THEN
+            INSERT INTO logs_auditoria (tabela, operacao, registro_id, dados_anteriores, dados_novos, usuario)
+            VALUES (TG_TABLE_NAME, TG_OP, NEW.id, anteriores, novos, usuario_auditoria);
+        END IF;
         RETURN NEW;
     ELSIF TG_OP = 'DELETE' THEN
         INSERT INTO logs_auditoria (tabela, operacao, registro_id, dados_anteriores, usuario)
-        VALUES (TG_TABLE_NAME, TG_OP, OLD.id, row_to_json(OLD), current_user);
+        VALUES (TG_TABLE_NAME, TG_OP, OLD.id, row_to_json(OLD), usuario_auditoria);
         RETURN OLD;
     END IF;
     RETURN NULL;
@@ -282,19 +546,13 @@ CREATE TRIGGER tg_auditoria_notas_fiscais
 -- =====================================================
 CREATE OR REPLACE FUNCTION fn_atualizar_status_pagamentos() RETURNS void AS $$
 BEGIN
-    -- Marcar pagamentos como atrasados
-    UPDATE pagamentos 
-    SET status = 'ATRASADO' 
-    WHERE status = 'PENDENTE' 
-    AND data_vencimento < CURRENT_DATE;
-    
-    -- Log da operação
-    INSERT INTO logs_auditoria (tabela, operacao, registro_id, dados_novos, usuario)
-    SELECT 'pagamentos', 'UPDATE', id, 
-           json_build_object('status', 'ATRASADO', 'data_atualizacao', CURRENT_TIMESTAMP),
-           'SISTEMA'
-    FROM pagamentos 
-    WHERE status = 'ATRASADO' 
+    -- Marcar pagamentos como atrasados; tg_auditoria_pagamentos audita as linhas alteradas
+    -- em nome de SISTEMA (o backend executa o mesmo processo em chunks em
+    -- WorkflowService.processarStatusAutomaticos)
+    PERFORM set_config('gestcon.usuario', 'SISTEMA', true);
+    UPDATE pagamentos
+    SET status = 'ATRASADO', data_atualizacao = CURRENT_TIMESTAMP, versao = versao + 1
+    WHERE status = 'PENDENTE'
     AND data_vencimento < CURRENT_DATE;
 END;
 $$ LANGUAGE plpgsql;
@@ -317,6 +575,48 @@ WHERE NOT EXISTS (
     SELECT 1 FROM processos_contrato WHERE contrato_id = contratos.id
 );
 
+-- =====================================================
+-- PONTEIRO PARA O PROCESSO ATUAL DO CONTRATO
+-- Descrição: Último processos_contrato de cada contrato, mantido
+-- pelo WorkflowService a cada transição (consulta O(1) da etapa atual)
+-- =====================================================
+ALTER TABLE contratos ADD COLUMN IF NOT EXISTS ultimo_processo_id BIGINT;
+
+UPDATE contratos c
+SET ultimo_processo_id = u.id
+FROM (
+    SELECT DISTINCT ON (contrato_id) contrato_id, id
+    FROM processos_contrato
+    ORDER BY contrato_id, data_acao DESC, id DESC
+) u
+WHERE c.id = u.contrato_id
+AND c.ultimo_processo_id IS DISTINCT FROM u.id;
+
+-- =====================================================
+-- TABELA: processos_contrato_diario
+-- Descrição: Consolidação diária de processos_contrato por status e ação.
+-- Incrementada a cada transição pelo WorkflowService e recalculada
+-- diariamente para os dias recentes (EstatisticasProcessoService)
+-- =====================================================
+CREATE TABLE IF NOT EXISTS processos_contrato_diario (
+    dia DATE NOT NULL,
+    status_atual VARCHAR(50) NOT NULL,
+    acao_realizada VARCHAR(255) NOT NULL,
+    quantidade BIGINT NOT NULL,
+
+    PRIMARY KEY (dia, status_atual, acao_realizada)
+);
+
+-- Carga inicial a partir do histórico existente
+INSERT INTO processos_contrato_diario (dia, status_atual, acao_realizada, quantidade)
+SELECT CAST(data_acao AS DATE), status_atual, acao_realizada, COUNT(*)
+FROM processos_contrato
+GROUP BY CAST(data_acao AS DATE), status_atual, acao_realizada
+ON CONFLICT (dia, status_atual, acao_realizada) DO UPDATE SET quantidade = EXCLUDED.quantidade;
+
+-- Sequências acima dos IDs gravados pelas cargas em SQL deste script
+SELECT fn_ajustar_sequencias();
+
 -- Comentários nas tabelas
 COMMENT ON TABLE processos_contrato IS 'Histórico de workflow e mudanças de status dos contratos';
 COMMENT ON TABLE pagamentos IS 'Controle de pagamentos e parcelas dos contratos';
@@ -30,14 +30,16 @@ describe('ContratoService', () => {
       { id: 2, numeroContrato: '456', objeto: 'Objeto 2' }
     ];
 
-    service.getContratos().subscribe(contratos => {
-      expect(contratos.length).toBe(2);
-      expect(contratos).toEqual(dummyContratos);
+    service.getContratos({ tamanho: 2 }).subscribe(pagina => {
+      expect(pagina.itens.length).toBe(2);
+      expect(pagina.itens).toEqual(dummyContratos);
+      expect(pagina.proximoCursor).toBe('abc');
     });
 
-    const req = httpMock.expectOne('/api/contratos');
+    const req = httpMock.expectOne(r => r.url.endsWith('/api/contratos'));
     expect(req.request.method).toBe('GET');
-    req.flush(dummyContratos);
+    expect(req.request.params.get('tamanho')).toBe('2');
+    req.flush({ itens: dummyContratos, proximoCursor: 'abc', temMais: true });
   });
 
   it('should create a contrato', () => {
@@ -47,7 +49,7 @@ describe('ContratoService', () => {
       expect(contrato).toEqual(newContrato);
     });
 
-    const req = httpMock.expectOne('/api/contratos');
+    const req = httpMock.expectOne(r => r.url.endsWith('/api/contratos'));
     expect(req.request.method).toBe('POST');
     req.flush(newContrato);
   });
@@ -59,7 +61,7 @@ describe('ContratoService', () => {
       expect(contrato).toEqual(updatedContrato);
     });
 
-    const req = httpMock.expectOne('/api/contratos/1');
+    const req = httpMock.expectOne(r => r.url.endsWith('/api/contratos/1'));
     expect(req.request.method).toBe('PUT');
     req.flush(updatedContrato);
   });
@@ -69,7 +71,7 @@ describe('ContratoService', () => {
       expect(response).toBeNull();
     });
 
-    const req = httpMock.expectOne('/api/contratos/1');
+    const req = httpMock.expectOne(r => r.url.endsWith('/api/contratos/1'));
     expect(req.request.method).toBe('DELETE');
     req.flush(null);
   });
@@ -1,6 +1,6 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { BehaviorSubject, Observable } from 'rxjs';
 
 export interface Contrato {
   id?: number;
@@ -14,6 +14,58 @@ export interface Contrato {
   responsavel: string;
 }
 
+export interface Pagina<T> {
+  itens: T[];
+  proximoCursor: string | null;
+  temMais: boolean;
+}
+
+export interface ConsultaPaginada {
+  cursor?: string | null;
+  tamanho?: number;
+  ordenarPor?: string;
+  direcao?: 'ASC' | 'DESC';
+  filtros?: { [campo: string]: string };
+}
+
+/**
+ * Acumula páginas de contratos sob demanda, para uso com cdk-virtual-scroll-viewport:
+ * a próxima página é buscada apenas quando a rolagem se aproxima do fim da lista carregada.
+ */
+export class ContratoPaginador {
+
+  private readonly itensSubject = new BehaviorSubject<Contrato[]>([]);
+  readonly itens$ = this.itensSubject.asObservable();
+
+  private cursor: string | null = null;
+  private temMais = true;
+  private carregando = false;
+
+  constructor(private service: ContratoService, private consulta: ConsultaPaginada = {}) { }
+
+  aoRolar(ultimoIndiceVisivel: number, margem = 20): void {
+    if (ultimoIndiceVisivel >= this.itensSubject.value.length - margem) {
+      this.carregarProximaPagina();
+    }
+  }
+
+  carregarProximaPagina(): void {
+    if (this.carregando || !this.temMais) {
+      return;
+    }
+    this.carregando = true;
+    this.service.getContratos({ ...this.consulta, cursor: this.cursor }).subscribe({
+      next: pagina => {
+        this.cursor = pagina.proximoCursor;
+        this.temMais = pagina.temMais;
+        this.itensSubject.next([...this.itensSubject.value, ...pagina.itens]);
+      },
+      complete: () => this.carregando = false,
+      error: () => this.carregando = false
+    });
+  }
+}
+
 @Injectable({
   providedIn: 'root'
 })
@@ -23,8 +75,23 @@ export class ContratoService {
 
   constructor(private http: HttpClient) { }
 
-  getContratos(): Observable<Contrato[]> {
-    return this.http.get<Contrato[]>(this.apiUrl);
+  getContratos(consulta: ConsultaPaginada = {}): Observable<Pagina<Contrato>> {
+    let params = new HttpParams().set('tamanho', consulta.tamanho ?? 50);
+    if (consulta.cursor) {
+      params = params.set('cursor', consulta.cursor);
+    }
+    if (consulta.ordenarPor) {
+      params = params.set('ordenarPor', consulta.ordenarPor);
+    }
+    if (consulta.direcao) {
+      params = params.set('direcao', consulta.direcao);
+    }
+    Object.entries(consulta.filtros ?? {}).forEach(([campo, valor]) => params = params.set(campo, valor));
+    return this.http.get<Pagina<Contrato>>(this.apiUrl, { params });
+  }
+
+  criarPaginador(consulta: ConsultaPaginada = {}): ContratoPaginador {
+    return new ContratoPaginador(this, consulta);
   }
 
   getContrato(id: number): Observable<Contrato> {
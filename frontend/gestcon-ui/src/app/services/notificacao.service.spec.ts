@@ -0,0 +1,40 @@
+import { TestBed } from '@angular/core/testing';
+import { HttpClientTestingModule, HttpTestingController } from '@angular/common/http/testing';
+import { NotificacaoService } from './notificacao.service';
+
+describe('NotificacaoService', () => {
+  let service: NotificacaoService;
+  let httpMock: HttpTestingController;
+
+  beforeEach(() => {
+    TestBed.configureTestingModule({
+      imports: [HttpClientTestingModule],
+      providers: [NotificacaoService]
+    });
+    service = TestBed.inject(NotificacaoService);
+    httpMock = TestBed.inject(HttpTestingController);
+  });
+
+  afterEach(() => {
+    httpMock.verify();
+  });
+
+  it('should fetch unread notificacoes', () => {
+    service.getNaoLidas().subscribe(notificacoes => {
+      expect(notificacoes.length).toBe(1);
+    });
+
+    const req = httpMock.expectOne(r => r.url.endsWith('/api/notificacoes/nao-lidas'));
+    expect(req.request.params.has('usuario')).toBeFalse();
+    expect(req.request.withCredentials).toBeTrue();
+    req.flush([{ id: 1, tipo: 'ATIVO', titulo: 'Contrato Ativado', mensagem: '' }]);
+  });
+
+  it('should mark notificacao as read', () => {
+    service.marcarLida(1).subscribe();
+
+    const req = httpMock.expectOne(r => r.url.endsWith('/api/notificacoes/1/lida'));
+    expect(req.request.method).toBe('PUT');
+    req.flush(null);
+  });
+});
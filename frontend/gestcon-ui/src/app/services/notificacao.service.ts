@@ -0,0 +1,53 @@
+import { Injectable, NgZone } from '@angular/core';
+import { HttpClient } from '@angular/common/http';
+import { Observable } from 'rxjs';
+
+export interface NotificacaoInApp {
+  id: number;
+  contratoId: number | null;
+  usuarioDestinatario: string;
+  tipo: string;
+  titulo: string;
+  mensagem: string;
+  prioridade: string;
+  dataCriacao: string;
+}
+
+/**
+ * Notificações in-app: carga inicial das não lidas e stream SSE em tempo real,
+ * substituindo a consulta periódica à API.
+ */
+@Injectable({
+  providedIn: 'root'
+})
+export class NotificacaoService {
+
+  private apiUrl = 'http://localhost:8080/api/notificacoes';
+
+  constructor(private http: HttpClient, private zone: NgZone) { }
+
+  /**
+   * Não lidas do usuário autenticado; o destinatário vem das credenciais, como no stream.
+   */
+  getNaoLidas(): Observable<NotificacaoInApp[]> {
+    return this.http.get<NotificacaoInApp[]>(`${this.apiUrl}/nao-lidas`, { withCredentials: true });
+  }
+
+  marcarLida(id: number): Observable<void> {
+    return this.http.put<void>(`${this.apiUrl}/${id}/lida`, null, { withCredentials: true });
+  }
+
+  /**
+   * Abre o stream SSE do usuário autenticado (identificado pelo backend a partir das credenciais).
+   * O EventSource reconecta sozinho após quedas; o chamador deve recarregar getNaoLidas
+   * ao reconectar para recuperar eventos perdidos.
+   */
+  stream(): Observable<NotificacaoInApp> {
+    return new Observable<NotificacaoInApp>(observer => {
+      const fonte = new EventSource(`${this.apiUrl}/stream`, { withCredentials: true });
+      fonte.addEventListener('notificacao', evento =>
+        this.zone.run(() => observer.next(JSON.parse((evento as MessageEvent).data))));
+      return () => fonte.close();
+    });
+  }
+}